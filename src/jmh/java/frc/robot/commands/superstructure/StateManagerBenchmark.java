@@ -0,0 +1,51 @@
+package frc.robot.commands.superstructure;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import frc.robot.subsystems.super_structure.States;
+
+/**
+ * Transition lookup in {@link StateManager}, building the command needs a superstructure
+ * so only the resolution is measured
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StateManagerBenchmark {
+    private final States[] states = States.values();
+
+    /** Includes the null from state the first transition has */
+    @Benchmark
+    public void resolveAllPairs(Blackhole bh) {
+        for (var to : states) {
+            bh.consume(StateManager.resolveTransition(null, to));
+            for (var from : states) {
+                bh.consume(StateManager.resolveTransition(from, to));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object resolveDefined() {
+        return StateManager.resolveTransition(States.STOW, States.PLACE_LOW_FRONT);
+    }
+
+    @Benchmark
+    public Object resolveDefault() {
+        return StateManager.resolveTransition(States.PLACE_MID, States.PICKUP_STATION);
+    }
+}
@@ -0,0 +1,71 @@
+package frc.robot.subsystems;
+
+import java.util.concurrent.TimeUnit;
+
+import org.littletonrobotics.junction.LogTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.robot.subsystems.super_structure.elevator.Elevator.ElevatorInputs;
+import frc.robot.subsystems.super_structure.endEffector.EndEffector.EndEffectorInputs;
+import frc.robot.subsystems.super_structure.pivot.Pivot.PivotInputs;
+import frc.robot.subsystems.super_structure.wrist.Wrist.WristInputs;
+import frc.robot.subsystems.swerve.SwerveModule.SwerveModuleInputs;
+
+/**
+ * The toLog and fromLog of every inputs class, what
+ * {@link org.littletonrobotics.junction.Logger#processInputs} costs on top of logging itself
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggableInputsBenchmark {
+    private final ElevatorInputs elevator = new ElevatorInputs(0.5);
+    private final PivotInputs pivot = new PivotInputs(30.0);
+    private final WristInputs wrist = new WristInputs(-20.0);
+    private final EndEffectorInputs endEffector = new EndEffectorInputs();
+    private final SwerveModuleInputs swerveModule = new SwerveModuleInputs();
+
+    private final LogTable table = new LogTable(0);
+    private LogTable elevatorTable, pivotTable, wristTable, endEffectorTable, swerveModuleTable;
+
+    @Setup
+    public void setup() {
+        elevatorTable = table.getSubtable("Elevator");
+        pivotTable = table.getSubtable("Pivot");
+        wristTable = table.getSubtable("Wrist");
+        endEffectorTable = table.getSubtable("EndEffector");
+        swerveModuleTable = table.getSubtable("SwerveModule");
+        // fromLog needs something to read
+        toLogAll();
+    }
+
+    @Benchmark
+    public void toLogAll() {
+        elevator.toLog(elevatorTable);
+        pivot.toLog(pivotTable);
+        wrist.toLog(wristTable);
+        endEffector.toLog(endEffectorTable);
+        swerveModule.toLog(swerveModuleTable);
+    }
+
+    @Benchmark
+    public void fromLogAll() {
+        elevator.fromLog(elevatorTable);
+        pivot.fromLog(pivotTable);
+        wrist.fromLog(wristTable);
+        endEffector.fromLog(endEffectorTable);
+        swerveModule.fromLog(swerveModuleTable);
+    }
+}
@@ -0,0 +1,50 @@
+package frc.robot.subsystems.super_structure;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.robot.subsystems.super_structure.States.SuperStructurePosition;
+
+/**
+ * The per cycle superstructure math that doesn't need devices
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SuperStructureBenchmark {
+    private final Visualizer visualizer = new Visualizer();
+    private final SuperStructurePosition setpoint = SuperStructurePosition.fromState(States.PLACE_HIGH);
+    private final SuperStructurePosition near = new SuperStructurePosition(
+            States.PLACE_HIGH.wristDegrees + 0.5,
+            States.PLACE_HIGH.pivotDegrees - 0.5,
+            States.PLACE_HIGH.elevatorMeters,
+            0.0);
+    private final SuperStructurePosition far = SuperStructurePosition.fromState(States.STOW);
+
+    @Benchmark
+    public boolean reachedStateNear() {
+        return setpoint.reachedState(near, 1.0);
+    }
+
+    @Benchmark
+    public boolean reachedStateFar() {
+        return setpoint.reachedState(far, 1.0);
+    }
+
+    @Benchmark
+    public void visualizerUpdateCurrent() {
+        visualizer.updateCurrent(near);
+    }
+}
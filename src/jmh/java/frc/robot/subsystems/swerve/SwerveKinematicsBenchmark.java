@@ -0,0 +1,72 @@
+package frc.robot.subsystems.swerve;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.Constants.kSwerve;
+
+/**
+ * The kinematics {@link Swerve} runs every teleop cycle
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SwerveKinematicsBenchmark {
+    private final SwerveSetpointGenerator setpointGenerator = new SwerveSetpointGenerator(
+            kSwerve.SWERVE_KINEMATICS,
+            4,
+            kSwerve.MAX_SPEED,
+            kSwerve.MAX_ACCELERATION,
+            kSwerve.MAX_ANGULAR_ACCELERATION,
+            kSwerve.MAX_MODULE_STEER_VELOCITY);
+    /** Faster than the modules can go so desaturation has work to do */
+    private final ChassisSpeeds speeds = new ChassisSpeeds(4.0, 3.0, 6.0);
+    private final Rotation2d yaw = Rotation2d.fromDegrees(37.0);
+    private double phase = 0.0;
+
+    @Benchmark
+    public SwerveModuleState[] toModuleStates() {
+        return kSwerve.SWERVE_KINEMATICS.toSwerveModuleStates(speeds);
+    }
+
+    @Benchmark
+    public SwerveModuleState[] toModuleStatesDesaturated() {
+        var states = kSwerve.SWERVE_KINEMATICS.toSwerveModuleStates(speeds);
+        SwerveDriveKinematics.desaturateWheelSpeeds(states, kSwerve.MAX_SPEED);
+        return states;
+    }
+
+    @Benchmark
+    public ChassisSpeeds fieldRelative() {
+        return ChassisSpeeds.fromFieldRelativeSpeeds(
+                speeds.vxMetersPerSecond, speeds.vyMetersPerSecond, speeds.omegaRadiansPerSecond, yaw);
+    }
+
+    @Benchmark
+    public SwerveSetpointGenerator.SwerveSetpoint setpointGenerator() {
+        // sweeping the request keeps the generator out of its steady state shortcut
+        phase += 0.02;
+        return setpointGenerator.generate(
+                new ChassisSpeeds(
+                        Math.sin(phase) * kSwerve.MAX_SPEED,
+                        Math.cos(phase) * kSwerve.MAX_SPEED,
+                        Math.sin(phase * 1.3) * kSwerve.MAX_ANGULAR_VELOCITY),
+                0.02);
+    }
+}
@@ -0,0 +1,57 @@
+package frc.robot.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ShuffleboardApi#run()} with different numbers of entries,
+ * each param gets its own fork so the entries don't pile up across params
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShuffleboardApiBenchmark {
+    @Param({ "10", "100", "1000" })
+    public int entries;
+
+    private double value = 0.0;
+
+    @Setup
+    public void setup() {
+        var tab = ShuffleboardApi.getTab("Benchmark");
+        for (int i = 0; i < entries; i++) {
+            // a third each of the common entry types
+            switch (i % 3) {
+                case 0:
+                    tab.addDouble("Double " + i, () -> value);
+                    break;
+                case 1:
+                    tab.addBoolean("Boolean " + i, () -> value > 0.5);
+                    break;
+                default:
+                    tab.addString("String " + i, () -> "constant");
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    public void run() {
+        value = value > 1.0 ? 0.0 : value + 0.01;
+        ShuffleboardApi.run();
+    }
+}
@@ -15,6 +15,22 @@ import frc.robot.util.SwerveModuleConstants.ModuleId;
 
 public final class Constants {
 
+    public static class kRobot {
+        /** How many times each hot path is run while disabled */
+        public static final int JIT_WARMUP_ITERATIONS = 12000;
+        /** Spread over loops so warming up doesn't overrun a disabled loop */
+        public static final int JIT_WARMUP_ITERATIONS_PER_LOOP = 60;
+        /** Compilation is considered settled once a loop adds less than this */
+        public static final long JIT_STABLE_COMPILE_MS = 1;
+        /** How many loops in a row compilation has to be settled for */
+        public static final int JIT_STABLE_LOOPS = 50;
+
+        /** Refreshes subsystem signals in parallel before the scheduler, see ConcurrentPeriodic */
+        public static final boolean CONCURRENT_PERIODIC = false;
+        /** One per independent bus is enough, the refreshes just wait */
+        public static final int CONCURRENT_PERIODIC_THREADS = 2;
+    }
+
     public static class ControllerConsts {
         public static final double LEFT_DEADBAND = 0.15;
         public static final double RIGHT_DEADBAND = 0.15;
@@ -24,20 +40,66 @@ public final class Constants {
         public static final int BRAKE_SWITCH_PIN = 16;
         public static final String CANBUS = "";
 
+        /**
+         * How much each part of the load contributes to the load factor
+         * used by {@link frc.robot.subsystems.super_structure.LoadSchedule},
+         * a fully extended elevator holding a cone is 1.0
+         */
+        public static final double LOAD_EXTENSION_WEIGHT = 0.6;
+        public static final double LOAD_CONE_WEIGHT = 0.4;
+        public static final double LOAD_CUBE_WEIGHT = 0.15;
+
+        /** How long the superstructure has to stay in tolerance to be settled */
+        public static final double SETTLE_SECONDS = 0.06;
+
+        /**
+         * If end-effector requests that run on reach can fire early,
+         * see {@link frc.robot.subsystems.super_structure.States#eeLeadSeconds}
+         */
+        public static final boolean EE_LEAD_ENABLED = true;
+
         public static final class kWrist {
             public static final int MOTOR_ID = 12;
             public static final double MOTOR_kP = 1.0;
             public static final double MOTOR_kI = 0.0;
             public static final double MOTOR_kD = 0.0;
 
+            // feedforwards are per mechanism degree, the wrist is relative to the
+            // elevator so kG is scaled by the cosine of pivot + wrist
+            /**
+             * kV, kA and kG come from the falcon motor model (106.3 rps free, 4.69 Nm and 257 A stall)
+             * through {@link #MOTOR_TO_MECHANISM_RATIO}, with {@link Specs#WRIST_MASS_GRAMS} at 0.15m.
+             * kS can't be derived and is a typical value for a falcon gearbox.
+             * All of them hold until {@link frc.robot.util.CharacterizationFitter} has real ones.
+             */
+            public static final double MOTOR_kS = 0.15;
+            public static final double MOTOR_kV = 0.0163;
+            public static final double MOTOR_kA = 0.000063;
+            public static final double MOTOR_kG = 0.236;
+
+            // slot 1, used when the arm is heavily loaded
+            public static final double MOTOR_kP_HEAVY = 1.3;
+            /** Derived like {@link #MOTOR_kA} and {@link #MOTOR_kG} with a 0.65kg cone at 0.3m */
+            public static final double MOTOR_kA_HEAVY = 0.000113;
+            public static final double MOTOR_kG_HEAVY = 0.330;
+
             /** For every {@value} rotations of the motor the mechanism moves 1 rotation */
             // motor -> (10t -> 72t) -> (20t -> 72t) -> (24t -> 48t)
             public static final double MOTOR_TO_MECHANISM_RATIO = (10.0 / 72.0) * (20.0 / 72.0) * (24.0 / 48.0);
 
+            /** The worst case constraints, elevator out and a cone held */
             public static final double MAX_VELOCITY = 75;
             public static final double MAX_ACCELERATION = 333;
             public static final double MAX_JERK = 2000;
 
+            /**
+             * The constraints with the elevator in and nothing held,
+             * provisional, conservatively above the worst case and not yet run on the robot
+             */
+            public static final double MAX_VELOCITY_LIGHT = 95;
+            public static final double MAX_ACCELERATION_LIGHT = 550;
+            public static final double MAX_JERK_LIGHT = 4000;
+
             public static final boolean INVERTED = false;
 
             /**
@@ -66,6 +128,8 @@ public final class Constants {
             public static final double HARD_OFFSET = 3.5;
 
             public static final double TOLERANCE = 0.5;
+            /** Degrees per second */
+            public static final double VELOCITY_TOLERANCE = 8.0;
         }
 
         public static final class kEndEffector {
@@ -75,6 +139,19 @@ public final class Constants {
             public static final boolean BREAK_DEFAULT = true;
 
             public static final double CURRENT_LIMIT = 15.0;
+
+            /**
+             * A gamepiece is detected when intaking with more than
+             * {@link #STALL_MIN_VOLTS} makes the motor pull more than
+             * {@link #STALL_AMPS} while spinning slower than
+             * {@link #STALL_ROTOR_VELOCITY} (rotations per second)
+             * for {@link #STALL_DEBOUNCE_SECONDS},
+             * a falcon stalled at the 1 volt intake pulls about 21 amps and the holds stay under the minimum
+             */
+            public static final double STALL_AMPS = 15.0;
+            public static final double STALL_ROTOR_VELOCITY = 8.0;
+            public static final double STALL_MIN_VOLTS = 0.5;
+            public static final double STALL_DEBOUNCE_SECONDS = 0.15;
         }
 
         public static final class kPivot {
@@ -86,10 +163,39 @@ public final class Constants {
             public static final double MOTOR_kI = 0;
             public static final double MOTOR_kD = 0;
 
+            // feedforwards are per mechanism degree, kG is scaled by the cosine of the pivot
+            /**
+             * kV, kA and kG come from the model of both falcons through {@link #MOTOR_TO_MECHANISM_RATIO},
+             * with the elevator in the arm is a uniform rod of {@link Specs#ARM_MASS_GRAMS} 0.565m long
+             * and the wrist a point mass at its end.
+             * kS can't be derived and is a typical value for a falcon gearbox.
+             * All of them hold until {@link frc.robot.util.CharacterizationFitter} has real ones.
+             */
+            public static final double MOTOR_kS = 0.15;
+            public static final double MOTOR_kV = 0.0752;
+            public static final double MOTOR_kA = 0.00019;
+            public static final double MOTOR_kG = 0.236;
+
+            // slot 1, used when the arm is heavily loaded
+            public static final double MOTOR_kP_HEAVY = 1.4;
+            /** Derived like {@link #MOTOR_kA} and {@link #MOTOR_kG} with the elevator out to 1.5m and a cone held */
+            public static final double MOTOR_kA_HEAVY = 0.00148;
+            public static final double MOTOR_kG_HEAVY = 0.678;
+
+            /** The worst case constraints, elevator out and a cone held */
             public static final double MAX_VELOCITY = 105;
             public static final double MAX_ACCELERATION = 700;
             public static final double MAX_JERK = 10000;// effectively infinite
 
+            /**
+             * The constraints with the elevator in and nothing held,
+             * velocity is already near the motors free speed so only acceleration grows.
+             * Provisional, conservatively above the worst case and not yet run on the robot
+             */
+            public static final double MAX_VELOCITY_LIGHT = 105;
+            public static final double MAX_ACCELERATION_LIGHT = 1200;
+            public static final double MAX_JERK_LIGHT = 10000;
+
             /**
              * Zero is parallel with the floor
              * <p>
@@ -129,6 +235,8 @@ public final class Constants {
             public static final double CURRENT_PEAK_FOR_HOME = 35.0;
 
             public static final double TOLERANCE = 0.5;
+            /** Degrees per second */
+            public static final double VELOCITY_TOLERANCE = 4.0;
         }
 
         public static final class kElevator {
@@ -139,6 +247,18 @@ public final class Constants {
             public static final double MOTOR_kD = 0.0;
             public static final double MOTOR_kI = 0.0;
 
+            // feedforwards are per mechanism meter, kG is scaled by the sine of the pivot
+            /**
+             * kV, kA and kG come from the model of both falcons through {@link #MOTOR_TO_MECHANISM_RATIO}
+             * and {@link #MECHANISM_DIAMETER_METERS}, the moving mass is the wrist and half the arm.
+             * kS can't be derived and is a typical value for a falcon gearbox.
+             * All of them hold until {@link frc.robot.util.CharacterizationFitter} has real ones.
+             */
+            public static final double MOTOR_kS = 0.15;
+            public static final double MOTOR_kV = 2.54;
+            public static final double MOTOR_kA = 0.0725;
+            public static final double MOTOR_kG = 0.711;
+
             public static final boolean ENABLE_SOFTLIMITS = false;
 
             public static final boolean INVERTED = false;
@@ -160,6 +280,8 @@ public final class Constants {
             public static final double MAX_METERS = Specs.ELEVATOR_MAX_METERS;
 
             public static final double TOLERANCE = 0.075;
+            /** Meters per second */
+            public static final double VELOCITY_TOLERANCE = 0.05;
         }
 
         public static final class Specs {
@@ -198,6 +320,23 @@ public final class Constants {
         public static final int PIGEON_ID = 33;
         public static final boolean INVERT_GYRO = false;
         public static final String CANBUS = "DriveBus";
+        /** How long re-zeroing the gyro can block the config worker for */
+        public static final double GYRO_RESET_TIMEOUT = 0.05;
+
+        /**
+         * Whether drive control and odometry run in their own loop at {@link #FAST_LOOP_PERIOD} at boot,
+         * everything else stays in the main loop, it can be switched from the dashboard while disabled
+         */
+        public static final boolean FAST_LOOP_ENABLED = false;
+        public static final double FAST_LOOP_PERIOD = 0.005;
+        /** A drive request older than this stops being applied, like a command that stopped driving */
+        public static final double FAST_LOOP_REQUEST_TIMEOUT = 0.1;
+        /** How often the signals odometry uses update in the main loop, faster than the loop so they're fresh */
+        public static final double MAIN_ODOMETRY_HZ = 100.0;
+        /** How often the signals odometry uses update in the fast loop, a new sample every cycle */
+        public static final double FAST_ODOMETRY_HZ = 1.0 / FAST_LOOP_PERIOD;
+        /** The odometry signal rate planned at boot, switching the fast loop re-applies the rate */
+        public static final double ODOMETRY_HZ = FAST_LOOP_ENABLED ? FAST_ODOMETRY_HZ : MAIN_ODOMETRY_HZ;
 
         /* Drivetrain Constants */
         public static final double TRACK_WIDTH = 0.551942;
@@ -227,6 +366,13 @@ public final class Constants {
         public static final double ANGLE_KI = 0.0;
         public static final double ANGLE_KD = 0.0;
 
+        /* Heading Controller PID Values */
+        public static final double HEADING_KP = 5.0;
+        public static final double HEADING_KI = 0.0;
+        public static final double HEADING_KD = 0.0;
+        /** Radians */
+        public static final double HEADING_TOLERANCE = Math.toRadians(1.5);
+
         /* Drive Motor PID Values */
         public static final double DRIVE_KP = 0.25;
         public static final double DRIVE_KI = 0.0;
@@ -237,6 +383,22 @@ public final class Constants {
         public static final double MAX_SPEED = 4.5;
         /** Radians per Second */
         public static final double MAX_ANGULAR_VELOCITY = 10.0;
+        /** Meters per Second squared, kept under what tips the robot with the elevator out */
+        public static final double MAX_ACCELERATION = 8.0;
+        /** Radians per Second squared */
+        public static final double MAX_ANGULAR_ACCELERATION = 30.0;
+        /** Radians per Second, ~65% of the angle motors free speed */
+        public static final double MAX_MODULE_STEER_VELOCITY = 20.0;
+
+        /* Traction Control Values */
+        /** Meters per Second a module can disagree with the rest of the chassis before it is slipping */
+        public static final double SLIP_THRESHOLD = 0.35;
+        /** The lowest a slipping module's commanded speed can be scaled to */
+        public static final double TRACTION_MIN_SCALE = 0.6;
+        /** Multiplied into a slipping module's speed scale every cycle */
+        public static final double TRACTION_SCALE_DROP = 0.85;
+        /** How much of the speed scale is recovered per second once a module grips again */
+        public static final double TRACTION_SCALE_RECOVERY = 2.0;
 
         /* Neutral Modes */
         public static final NeutralModeValue ANGLE_NEUTRAL_MODE = NeutralModeValue.Coast;
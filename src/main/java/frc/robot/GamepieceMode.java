@@ -1,24 +1,65 @@
 package frc.robot;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import frc.robot.util.ThreadConfinement;
+
 public enum GamepieceMode {
     CONE, CUBE;
 
     private static GamepieceMode desiredPiece = CONE;
     private static GamepieceMode heldPiece = null;
 
+    private static final List<Consumer<GamepieceMode>> desiredListeners = new ArrayList<>();
+    private static final List<Consumer<GamepieceMode>> heldListeners = new ArrayList<>();
+
+    /**
+     * @param listener called with the new piece whenever the desired piece changes
+     */
+    public static void addDesiredListener(Consumer<GamepieceMode> listener) {
+        ThreadConfinement.check("GamepieceMode");
+        desiredListeners.add(listener);
+    }
+
+    /**
+     * @param listener called with the new piece, can be null, whenever the held piece changes
+     */
+    public static void addHeldListener(Consumer<GamepieceMode> listener) {
+        ThreadConfinement.check("GamepieceMode");
+        heldListeners.add(listener);
+    }
+
     public static GamepieceMode getDesiredPiece() {
+        ThreadConfinement.check("GamepieceMode");
         return desiredPiece;
     }
 
     public static void setDesiredPiece(GamepieceMode mode) {
+        ThreadConfinement.check("GamepieceMode");
+        if (desiredPiece == mode) {
+            return;
+        }
         desiredPiece = mode;
+        for (var listener : desiredListeners) {
+            listener.accept(mode);
+        }
     }
 
     public static GamepieceMode getHeldPiece() {
+        ThreadConfinement.check("GamepieceMode");
         return heldPiece;
     }
 
     public static void setHeldPiece(GamepieceMode heldPiece) {
+        ThreadConfinement.check("GamepieceMode");
+        if (GamepieceMode.heldPiece == heldPiece) {
+            return;
+        }
         GamepieceMode.heldPiece = heldPiece;
+        for (var listener : heldListeners) {
+            listener.accept(heldPiece);
+        }
     }
 }
@@ -1,11 +1,18 @@
 package frc.robot;
 
+import org.littletonrobotics.junction.Logger;
+
 import edu.wpi.first.wpilibj.DigitalOutput;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Timer;
-import edu.wpi.first.wpilibj2.command.InstantCommand;
-import edu.wpi.first.wpilibj2.command.button.Trigger;
 
+/**
+ * Picks the pattern sent to the LED controller from a stack of layers,
+ * the highest priority layer with a pattern wins.
+ * <p>
+ * Layers only change on events, a mode change, a gamepiece change or a timed overlay,
+ * and the pins are only written when a bit actually changes.
+ */
 public class LED {
 
     private static LED instance;
@@ -38,67 +45,132 @@ public class LED {
         }
     }
 
-    private final DigitalOutput bitOne = new DigitalOutput(10+10);
-    private final DigitalOutput bitTwo = new DigitalOutput(8+10);
-    private final DigitalOutput bitThree = new DigitalOutput(7+10);
-    private final DigitalOutput bitFour = new DigitalOutput(9+10);
+    /** Ordered from lowest to highest priority */
+    public enum Layer {
+        GAMEPIECE,
+        MODE,
+        OVERLAY
+    }
 
-    private Timer timer;
-    private Double duration;
-    private LedPatterns pattern;
-    private LedPatterns lastPattern;
+    private static final double WARNING_SECONDS = 30.0;
+    private static final double WARNING_DURATION = 2.0;
+    private static final Layer[] LAYERS = Layer.values();
+
+    private final DigitalOutput[] bits = new DigitalOutput[] {
+        new DigitalOutput(10+10),
+        new DigitalOutput(8+10),
+        new DigitalOutput(7+10),
+        new DigitalOutput(9+10)
+    };
+
+    private final LedPatterns[] layers = new LedPatterns[LAYERS.length];
+    /** When the overlay expires, FPGA seconds */
+    private double overlayEnd = Double.NEGATIVE_INFINITY;
+    /** Last value written to the pins, -1 until the first write */
+    private int sentBits = -1;
+    private LedPatterns sentPattern = null;
+    private double lastMatchTime = -1.0;
 
     /** Creates a new LED. */
     public LED() {
-        this.timer = new Timer();
-        this.pattern = LedPatterns.DISABLED;
-        this.lastPattern = LedPatterns.DISABLED;
-        this.duration = 0.0;
-        sendPattern(LedPatterns.DISABLED);
-
-        new Trigger(DriverStation::isFMSAttached)
-            .and(() -> Math.abs(DriverStation.getMatchTime() - 30.0) < 0.2)
-            .onTrue(new InstantCommand(() -> this.setLed(LedPatterns._30S_LEFT, 2)));
+        layers[Layer.MODE.ordinal()] = LedPatterns.DISABLED;
+        layers[Layer.GAMEPIECE.ordinal()] = patternFor(GamepieceMode.getDesiredPiece());
+        GamepieceMode.addDesiredListener(piece -> setLayer(Layer.GAMEPIECE, patternFor(piece)));
+        update();
     }
 
-    private void sendPattern(LedPatterns pattern) {
-        int num = pattern.getValue();
-        bitOne.set((num & 0b0001) == 0b0001);
-        bitTwo.set((num & 0b0010) == 0b0010);
-        bitThree.set((num & 0b0100) == 0b0100);
-        bitFour.set((num & 0b1000) == 0b1000);
+    private static LedPatterns patternFor(GamepieceMode piece) {
+        if (piece == GamepieceMode.CONE) {
+            return LedPatterns.CONE;
+        } else if (piece == GamepieceMode.CUBE) {
+            return LedPatterns.CUBE;
+        }
+        return null;
     }
 
+    /**
+     * Shows a pattern over everything else for a while
+     */
     public void setLed(LedPatterns pattern, double seconds) {
-        this.timer.restart();
-        this.pattern = pattern;
-        this.duration = seconds;
+        overlayEnd = Timer.getFPGATimestamp() + seconds;
+        setLayer(Layer.OVERLAY, pattern);
     }
 
     public void setLed(LedPatterns pattern) {
         setLed(pattern, Double.POSITIVE_INFINITY);
     }
 
+    /**
+     * Drops the overlay so the mode and gamepiece patterns show again
+     */
     public void setDefault() {
-        this.duration = 0.0;
+        setLayer(Layer.OVERLAY, null);
+    }
+
+    /**
+     * Should be called when the robot changes mode, disabled and auto
+     * have their own patterns, teleop and test show the gamepiece
+     */
+    public void onModeChange() {
         if (DriverStation.isDisabled()) {
-            this.pattern = LedPatterns.DISABLED;
+            setLayer(Layer.MODE, LedPatterns.DISABLED);
         } else if (DriverStation.isAutonomous()) {
-            this.pattern = LedPatterns.AUTO;
-        } else if (GamepieceMode.getDesiredPiece() == GamepieceMode.CONE) {
-            this.pattern = LedPatterns.CONE;
-        } else if (GamepieceMode.getDesiredPiece() == GamepieceMode.CUBE) {
-            this.pattern = LedPatterns.CUBE;
+            setLayer(Layer.MODE, LedPatterns.AUTO);
+        } else {
+            setLayer(Layer.MODE, null);
         }
     }
 
+    /**
+     * Sets the pattern of a layer
+     *
+     * @param layer   the layer to set
+     * @param pattern the pattern, null to let lower layers show through
+     */
+    public void setLayer(Layer layer, LedPatterns pattern) {
+        layers[layer.ordinal()] = pattern;
+        update();
+    }
+
     public void run() {
-        if (timer.hasElapsed(duration)) {
+        if (layers[Layer.OVERLAY.ordinal()] != null && Timer.getFPGATimestamp() >= overlayEnd) {
             setDefault();
         }
-        if (pattern != lastPattern || duration == 0) {
-            sendPattern(pattern);
-            lastPattern = pattern;
+
+        // only fires on the loop the match clock crosses the warning
+        double matchTime = DriverStation.getMatchTime();
+        if (DriverStation.isFMSAttached() && DriverStation.isTeleopEnabled()
+                && lastMatchTime > WARNING_SECONDS && matchTime <= WARNING_SECONDS) {
+            setLed(LedPatterns._30S_LEFT, WARNING_DURATION);
         }
+        lastMatchTime = matchTime;
+    }
+
+    private void update() {
+        LedPatterns pattern = LedPatterns.DISABLED;
+        Layer source = null;
+        for (int i = layers.length - 1; i >= 0; i--) {
+            if (layers[i] != null) {
+                pattern = layers[i];
+                source = LAYERS[i];
+                break;
+            }
+        }
+        if (pattern == sentPattern) {
+            return;
+        }
+
+        int num = pattern.getValue();
+        for (int i = 0; i < bits.length; i++) {
+            int mask = 1 << i;
+            if (sentBits < 0 || (num & mask) != (sentBits & mask)) {
+                bits[i].set((num & mask) == mask);
+            }
+        }
+        sentBits = num;
+        sentPattern = pattern;
+
+        Logger.recordOutput("LED/Pattern", pattern.name());
+        Logger.recordOutput("LED/Layer", source == null ? "NONE" : source.name());
     }
 }
@@ -1,6 +1,7 @@
 package frc.robot;
 
 import edu.wpi.first.wpilibj.RobotBase;
+import frc.robot.util.StartupProfiler;
 
 /**
  * Do NOT add any static variables to this class, or any initialization at all. Unless you know what
@@ -11,6 +12,7 @@ public final class Main {
   private Main() {}
 
   public static void main(String... args) {
+    StartupProfiler.start();
     RobotBase.startRobot(Robot::new);
   }
 }
\ No newline at end of file
@@ -16,7 +16,20 @@ import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import frc.robot.commands.auto.Autos;
+import frc.robot.commands.characterization.CharacterizationCommands;
+import frc.robot.commands.characterization.CharacterizationCommands.Mechanism;
+import frc.robot.util.BootConfigurator;
+import frc.robot.util.ConcurrentPeriodic;
+import frc.robot.util.ConfigWorker;
+import frc.robot.util.ControllerSnapshot;
+import frc.robot.util.ErrorReporter;
+import frc.robot.util.JitWarmUp;
+import frc.robot.util.LatencyTracer;
+import frc.robot.util.LoopTelemetry;
 import frc.robot.util.ShuffleboardApi;
+import frc.robot.util.SignalPlanner;
+import frc.robot.util.StartupProfiler;
+import frc.robot.util.ThreadConfinement;
 
 public class Robot extends LoggedRobot {
 
@@ -26,10 +39,17 @@ public class Robot extends LoggedRobot {
     private Autos.AutoRoutines autoRoutine;
     private Optional<Alliance> alliance = Optional.empty();
     private final SendableChooser<Autos.AutoRoutines> autoRoutineChooser = new SendableChooser<>();
+    private final SendableChooser<Command> characterizationChooser = new SendableChooser<>();
 
     @Override
     public void robotInit() {
+        ThreadConfinement.claimRobotThread();
+        // the rest of the robot container setup is triggers and commands
+        StartupProfiler.mark("RobotContainer");
+        SignalPlanner.apply();
         setupAkit();
+        LatencyTracer.start();
+        StartupProfiler.mark("LoggerStart");
         
         Autos.AutoRoutines[] autoRoutines = Autos.AutoRoutines.values();
         for (Autos.AutoRoutines autoRoutine : autoRoutines) {
@@ -43,21 +63,43 @@ public class Robot extends LoggedRobot {
         SmartDashboard.putString("AutoCommand", autoCmd == null ? "null" : autoCmd.getName());
         ShuffleboardApi.getTab("Autos")
             .addSendable("Autonomous Routine", autoRoutineChooser);
+
+        setupCharacterization();
+        StartupProfiler.mark("Dashboards");
     }
 
     @Override
     public void robotPeriodic() {
+        LoopTelemetry.beginLoop();
+        // triggers and drive suppliers all read this snapshot
+        ControllerSnapshot.sampleAll();
         ShuffleboardApi.run();
+        LoopTelemetry.mark("Shuffleboard");
+        ConcurrentPeriodic.run();
+        LoopTelemetry.mark("Signals");
         CommandScheduler.getInstance().run();
+        LoopTelemetry.mark("Scheduler");
         LED.getInstance().run();
+        LoopTelemetry.mark("LED");
+        ConfigWorker.periodic();
+        BootConfigurator.periodic();
+        SignalPlanner.periodic();
+        ErrorReporter.periodic();
+        StartupProfiler.finish();
+        LatencyTracer.periodic();
+        LoopTelemetry.mark("Services");
+        LoopTelemetry.endLoop();
     }
 
     @Override
     public void disabledInit() {
+        LED.getInstance().onModeChange();
     }
 
     @Override
     public void disabledPeriodic() {
+        JitWarmUp.disabledPeriodic();
+
         var selectedRoutine = autoRoutineChooser.getSelected();
         var currAlliance = DriverStation.getAlliance();
         if (currAlliance.isPresent() && alliance.isPresent()) {
@@ -72,6 +114,7 @@ public class Robot extends LoggedRobot {
 
     @Override
     public void autonomousInit() {
+        LED.getInstance().onModeChange();
         if (autoCmd != null) {
             autoCmd.schedule();
         }
@@ -83,6 +126,7 @@ public class Robot extends LoggedRobot {
 
     @Override
     public void teleopInit() {
+        LED.getInstance().onModeChange();
         CommandScheduler.getInstance().cancelAll();
     }
 
@@ -92,7 +136,13 @@ public class Robot extends LoggedRobot {
 
     @Override
     public void testInit() {
+        LED.getInstance().onModeChange();
         CommandScheduler.getInstance().cancelAll();
+
+        var characterizationCmd = characterizationChooser.getSelected();
+        if (characterizationCmd != null) {
+            characterizationCmd.schedule();
+        }
     }
 
     @Override
@@ -107,6 +157,26 @@ public class Robot extends LoggedRobot {
     public void simulationPeriodic() {
     }
 
+    /** Characterization tests are picked here and run when test mode is enabled */
+    private void setupCharacterization() {
+        characterizationChooser.setDefaultOption("NOTHING", null);
+        for (Mechanism mechanism : Mechanism.values()) {
+            for (boolean forward : new boolean[] {true, false}) {
+                var direction = forward ? "FORWARD" : "REVERSE";
+                characterizationChooser.addOption(
+                    mechanism.name() + " QUASISTATIC " + direction,
+                    CharacterizationCommands.quasistatic(
+                        mechanism, forward, RobotContainer.swerve, RobotContainer.superStructure));
+                characterizationChooser.addOption(
+                    mechanism.name() + " DYNAMIC " + direction,
+                    CharacterizationCommands.dynamic(
+                        mechanism, forward, RobotContainer.swerve, RobotContainer.superStructure));
+            }
+        }
+        ShuffleboardApi.getTab("Characterization")
+            .addSendable("Characterization Test", characterizationChooser);
+    }
+
     private void setupAkit() {
         Logger.recordMetadata("Robot", "CitrusCircus");
         Logger.recordMetadata("RuntimeType", getRuntimeType().toString());
@@ -131,6 +201,7 @@ public class Robot extends LoggedRobot {
             Logger.addDataReceiver(new WPILOGWriter("/media/sda1/robotlogs/"));
         }
         Logger.addDataReceiver(new NT4Publisher());
+        StartupProfiler.recordMetadata();
         Logger.start();
 
         HashMap<String, Integer> commandCounts = new HashMap<>();
@@ -8,9 +8,12 @@ import frc.robot.Constants.kSwerve;
 import frc.robot.commands.superstructure.StateManager;
 import frc.robot.subsystems.super_structure.States;
 import frc.robot.subsystems.super_structure.SuperStructure;
+import frc.robot.subsystems.super_structure.States.EERequest;
 import frc.robot.subsystems.swerve.Swerve;
+import frc.robot.util.ControllerSnapshot;
 import frc.robot.util.ForcibleTrigger;
 import frc.robot.util.ShuffleboardApi;
+import frc.robot.util.StartupProfiler;
 
 import java.util.Map;
 
@@ -18,14 +21,23 @@ import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.shuffleboard.BuiltInWidgets;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
-import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 
 public class RobotContainer {
-    private static final CommandXboxController soloController = new CommandXboxController(0);
-
-    public static final Swerve swerve = new Swerve();
-    public static final SuperStructure superStructure = new SuperStructure();
+    private static final ControllerSnapshot soloController;
+
+    public static final Swerve swerve;
+    public static final SuperStructure superStructure;
+
+    static {
+        // everything before this is wpilib bringing up the hal and networktables
+        StartupProfiler.mark("RobotBase");
+        soloController = new ControllerSnapshot(0);
+        swerve = new Swerve();
+        StartupProfiler.mark("Swerve");
+        superStructure = new SuperStructure();
+        StartupProfiler.mark("SuperStructure");
+    }
 
     public static NetworkTableEntry swerveTranslationValEntry, swerveRotationValEntry;
 
@@ -33,8 +45,12 @@ public class RobotContainer {
         DriverStation.silenceJoystickConnectionWarning(true);
 
         configureSoloBindings();
+        StartupProfiler.mark("Bindings");
 
         configureDriverTabShuffleboard();
+        StartupProfiler.mark("DriverTab");
+
+        StateManager.registerWarmUp(superStructure);
 
         swerve.setDefaultCommand(
                 new TeleopSwerve(
@@ -50,6 +66,19 @@ public class RobotContainer {
         ss_trigger.onFalse(
                 new InstantCommand(() -> superStructure.stopAll(), superStructure)
         );
+
+        // the end-effector stalls once it has a piece, stow right away instead of
+        // waiting for the operator to notice
+        var pickupTrigger = new Trigger(() -> {
+            var lastState = StateManager.getLastState();
+            return lastState != null
+                    && lastState.eeRequest == EERequest.INTAKING
+                    && superStructure.hasGamepiece();
+        });
+        pickupTrigger.onTrue(
+                new InstantCommand(() -> GamepieceMode.setHeldPiece(GamepieceMode.getDesiredPiece()))
+                        .andThen(new CmdTransitionState(superStructure, States.STOW))
+        );
     }
 
     private static void configureSoloBindings() {
@@ -63,17 +92,11 @@ public class RobotContainer {
         soloController.leftTrigger().onTrue(new StateManager.CmdTransitionState(superStructure, States.STOW));
 
         soloController.rightBumper().onTrue(
-            new InstantCommand(() -> {
-                GamepieceMode.setDesiredPiece(GamepieceMode.CONE);
-                GamepieceMode.setHeldPiece(GamepieceMode.CONE);
-            })
+            new InstantCommand(() -> GamepieceMode.setDesiredPiece(GamepieceMode.CONE))
                 .andThen(new CmdTransitionState(superStructure, States.PICKUP_GROUND))
         );
         soloController.leftBumper().onTrue(
-            new InstantCommand(() -> {
-                GamepieceMode.setDesiredPiece(GamepieceMode.CUBE);
-                GamepieceMode.setHeldPiece(GamepieceMode.CUBE);
-            })
+            new InstantCommand(() -> GamepieceMode.setDesiredPiece(GamepieceMode.CUBE))
                 .andThen(new CmdTransitionState(superStructure, States.PICKUP_GROUND))
         );
 
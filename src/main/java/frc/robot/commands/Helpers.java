@@ -5,10 +5,10 @@ import java.util.function.DoubleSupplier;
 import edu.wpi.first.math.MathUtil;
 
 public class Helpers {
-    public static DoubleSupplier deadbandSupplier(DoubleSupplier input, Double db) {
+    public static DoubleSupplier deadbandSupplier(DoubleSupplier input, double db) {
         return new DoubleSupplier() {
             private final DoubleSupplier inputSupplier = input;
-            private final Double deadband = db;
+            private final double deadband = db;
 
             @Override
             public double getAsDouble() {
@@ -17,7 +17,7 @@ public class Helpers {
         };
     }
 
-    public static double clamp(Double value, Double min, Double max) {
+    public static double clamp(double value, double min, double max) {
         if (value < min) return min;
         else if (value > max) return max;
         return value;
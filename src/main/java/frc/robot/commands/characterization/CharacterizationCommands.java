@@ -0,0 +1,175 @@
+package frc.robot.commands.characterization;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.FunctionalCommand;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.Constants.kSuperStructure.*;
+import frc.robot.subsystems.super_structure.SuperStructure;
+import frc.robot.subsystems.super_structure.SuperStructure.CharacterizedComponent;
+import frc.robot.subsystems.swerve.Swerve;
+
+/**
+ * Quasistatic and dynamic tests for fitting feedforward gains,
+ * everything is logged under "Characterization/{mechanism}/" for
+ * {@link frc.robot.util.CharacterizationFitter} to read back out of the log.
+ */
+public class CharacterizationCommands {
+    public static enum Mechanism {
+        DRIVE, STEER, PIVOT, ELEVATOR, WRIST
+    }
+
+    /** How the fitter should model gravity for the mechanism */
+    public static enum GravityModel {
+        /** gravity doesn't act on the mechanism */
+        NONE,
+        /** kG is scaled by the cosine of the gravity angle, arms */
+        COSINE,
+        /** kG is scaled by the sine of the gravity angle, elevators on a pivot */
+        SINE
+    }
+
+    /** How long either test can run before it is stopped */
+    private static final double TIMEOUT_SECS = 10.0;
+    /** The ramp rate of the quasistatic test */
+    private static final double RAMP_VOLTS_PER_SEC = 1.0;
+
+    private static class Target {
+        public final String name;
+        public final Subsystem requirement;
+        public final DoubleConsumer voltageSink;
+        public final DoubleSupplier position, velocity, gravityDegrees;
+        public final GravityModel gravityModel;
+        public final double minPosition, maxPosition, stepVolts;
+
+        public Target(
+                String name, Subsystem requirement, DoubleConsumer voltageSink,
+                DoubleSupplier position, DoubleSupplier velocity,
+                GravityModel gravityModel, DoubleSupplier gravityDegrees,
+                double minPosition, double maxPosition, double stepVolts) {
+            this.name = name;
+            this.requirement = requirement;
+            this.voltageSink = voltageSink;
+            this.position = position;
+            this.velocity = velocity;
+            this.gravityModel = gravityModel;
+            this.gravityDegrees = gravityDegrees;
+            this.minPosition = minPosition;
+            this.maxPosition = maxPosition;
+            this.stepVolts = stepVolts;
+        }
+    }
+
+    private static Target getTarget(Mechanism mechanism, Swerve swerve, SuperStructure superStructure) {
+        DoubleSupplier pivotDegrees = () -> superStructure
+                .getCharacterizationPosition(CharacterizedComponent.PIVOT);
+        switch (mechanism) {
+            case DRIVE:
+                return new Target(
+                        "Drive", swerve, swerve::runDriveCharacterization,
+                        swerve::getAverageDriveDistance, swerve::getAverageDriveVelocity,
+                        GravityModel.NONE, () -> 0.0,
+                        Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 7.0);
+            case STEER:
+                return new Target(
+                        "Steer", swerve, swerve::runSteerCharacterization,
+                        swerve::getAverageSteerAngle, swerve::getAverageSteerVelocity,
+                        GravityModel.NONE, () -> 0.0,
+                        Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 4.0);
+            case PIVOT:
+                return superStructureTarget(
+                        "Pivot", superStructure, CharacterizedComponent.PIVOT,
+                        GravityModel.COSINE, pivotDegrees,
+                        kPivot.MIN_DEGREES + 5.0, kPivot.MAX_DEGREES - 5.0, 4.0);
+            case ELEVATOR:
+                return superStructureTarget(
+                        "Elevator", superStructure, CharacterizedComponent.ELEVATOR,
+                        GravityModel.SINE, pivotDegrees,
+                        kElevator.MIN_METERS + 0.05, kElevator.MAX_METERS - 0.1, 4.0);
+            default:
+                // the wrist angle is relative to the elevator so gravity acts on the sum
+                return superStructureTarget(
+                        "Wrist", superStructure, CharacterizedComponent.WRIST,
+                        GravityModel.COSINE,
+                        () -> pivotDegrees.getAsDouble()
+                                + superStructure.getCharacterizationPosition(CharacterizedComponent.WRIST),
+                        kWrist.MIN_DEGREES + 5.0, kWrist.MAX_DEGREES - 5.0, 3.0);
+        }
+    }
+
+    private static Target superStructureTarget(
+            String name, SuperStructure superStructure, CharacterizedComponent component,
+            GravityModel gravityModel, DoubleSupplier gravityDegrees,
+            double minPosition, double maxPosition, double stepVolts) {
+        return new Target(
+                name, superStructure,
+                volts -> superStructure.runCharacterizationVolts(component, volts),
+                () -> superStructure.getCharacterizationPosition(component),
+                () -> superStructure.getCharacterizationVelocity(component),
+                gravityModel, gravityDegrees,
+                minPosition, maxPosition, stepVolts);
+    }
+
+    /**
+     * Slowly ramps the voltage so acceleration is negligible,
+     * this isolates kS, kV and kG.
+     *
+     * @param forward if the voltage should be positive
+     */
+    public static Command quasistatic(
+            Mechanism mechanism, boolean forward, Swerve swerve, SuperStructure superStructure) {
+        double sign = forward ? 1.0 : -1.0;
+        return characterize(
+                getTarget(mechanism, swerve, superStructure),
+                "Quasistatic", forward,
+                secs -> sign * RAMP_VOLTS_PER_SEC * secs);
+    }
+
+    /**
+     * Steps straight to a fixed voltage so the mechanism accelerates hard,
+     * this isolates kA.
+     *
+     * @param forward if the voltage should be positive
+     */
+    public static Command dynamic(
+            Mechanism mechanism, boolean forward, Swerve swerve, SuperStructure superStructure) {
+        var target = getTarget(mechanism, swerve, superStructure);
+        double volts = forward ? target.stepVolts : -target.stepVolts;
+        return characterize(target, "Dynamic", forward, secs -> volts);
+    }
+
+    private static Command characterize(
+            Target target, String test, boolean forward, DoubleUnaryOperator voltsOverTime) {
+        final String prefix = "Characterization/" + target.name + "/";
+        final Timer timer = new Timer();
+        return new FunctionalCommand(
+                () -> {
+                    timer.restart();
+                    Logger.recordOutput(prefix + "GravityModel", target.gravityModel.name());
+                },
+                () -> {
+                    double volts = voltsOverTime.applyAsDouble(timer.get());
+                    target.voltageSink.accept(volts);
+                    Logger.recordOutput(prefix + "Test", test);
+                    Logger.recordOutput(prefix + "Volts", volts);
+                    Logger.recordOutput(prefix + "Position", target.position.getAsDouble());
+                    Logger.recordOutput(prefix + "Velocity", target.velocity.getAsDouble());
+                    Logger.recordOutput(prefix + "GravityDegrees", target.gravityDegrees.getAsDouble());
+                },
+                interrupted -> target.voltageSink.accept(0.0),
+                () -> {
+                    // stop before the mechanism runs into a hard stop
+                    double position = target.position.getAsDouble();
+                    return forward ? position > target.maxPosition : position < target.minPosition;
+                },
+                target.requirement)
+                .withTimeout(TIMEOUT_SECS)
+                .withName(target.name + test + (forward ? "Forward" : "Reverse"));
+    }
+}
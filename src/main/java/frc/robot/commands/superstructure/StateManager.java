@@ -4,14 +4,22 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+import org.littletonrobotics.junction.Logger;
+
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import frc.robot.GamepieceMode;
+import frc.robot.Constants.kSuperStructure;
 import frc.robot.commands.superstructure.Transitions.TransitionData;
 import frc.robot.subsystems.super_structure.States;
 import frc.robot.subsystems.super_structure.SuperStructure;
 import frc.robot.subsystems.super_structure.States.EEBehavior;
 import frc.robot.subsystems.super_structure.States.EERequest;
+import frc.robot.subsystems.super_structure.States.SuperStructurePosition;
+import frc.robot.util.JitWarmUp;
+import frc.robot.util.LatencyTracer;
+import frc.robot.util.LatencyTracer.Path;
+import frc.robot.util.ThreadConfinement;
 
 /**
  * Acts as a stateful interface for the {@link SuperStructure}.
@@ -23,9 +31,10 @@ public class StateManager {
 
     /**
      * Is essential for determining transitions,
-     * can only be mutated by {@link CmdTransitionState}
+     * can only be mutated by {@link CmdTransitionState}, confined to the robot thread
      */
     private static States lastState;
+    private static final String LAST_STATE_OWNER = "StateManager.lastState";
 
     /**
      * Runs the given command when transitioning to the given state from the
@@ -106,17 +115,28 @@ public class StateManager {
                 States.PICKUP_GROUND);
     }
 
+    /**
+     * @param from The state being transitioned from
+     * @param to   The state being transitioned to
+     * @return The factory for the transition command, package private so it can be benchmarked
+     */
+    static Function<TransitionData, Command> resolveTransition(States from, States to) {
+        var fromMap = transitions.get(from);
+        if (fromMap != null) {
+            var cmd = fromMap.get(to);
+            if (cmd != null) {
+                return cmd;
+            }
+        }
+        return Transitions::defaultTransition;
+    }
+
     /**
      * @param data The data to use for the transition
      * @return The command to run when transitioning from one state to another
      */
     private static Command getTransitionCmd(TransitionData data) {
-        if (transitions.containsKey(data.from)) {
-            if (transitions.get(data.from).containsKey(data.to)) {
-                return transitions.get(data.from).get(data.to).apply(data);
-            }
-        }
-        return Transitions.defaultTransition(data);
+        return resolveTransition(data.from, data.to).apply(data);
     }
 
     /**
@@ -127,7 +147,7 @@ public class StateManager {
      *                gamepiece variable
      * @return The wanted voltage of the end-effector
      */
-    private static Double endEffectorVoltage(EERequest req, boolean useHeld) {
+    private static double endEffectorVoltage(EERequest req, boolean useHeld) {
         if (useHeld) {
             var held = GamepieceMode.getHeldPiece();
             if (held == null) {
@@ -146,10 +166,31 @@ public class StateManager {
      * @param to The state to transition to
      * @return The wanted voltage of the end-effector
      */
-    private static Double endEffectorVoltage(States to) {
+    private static double endEffectorVoltage(States to) {
         return endEffectorVoltage(to.eeRequest, to.useHeldGamepiece);
     }
 
+    /**
+     * Registers the transition lookup and end-effector solving with {@link JitWarmUp},
+     * transition commands are built but never scheduled so nothing moves
+     * 
+     * @param superStructure The superstructure the transitions are built for
+     */
+    public static void registerWarmUp(SuperStructure superStructure) {
+        var states = States.values();
+        int[] index = { 0 };
+        JitWarmUp.register("StateManager", () -> {
+            // walks every from/to pair over successive iterations
+            var from = states[index[0] % states.length];
+            var to = states[(index[0] / states.length) % states.length];
+            index[0]++;
+            getTransitionCmd(new TransitionData(from, to, superStructure));
+            endEffectorVoltage(to);
+            SuperStructurePosition.fromState(to).reachedState(superStructure.getSetpoint(), to.toleranceMult);
+            superStructure.willArriveWithin(to.eeLeadSeconds);
+        });
+    }
+
     /**
      * A Complex Command that handles calling state transitions and handling the
      * end-effector logic
@@ -157,6 +198,7 @@ public class StateManager {
     public static class CmdTransitionState extends Command {
         private final SuperStructure superStructure;
         private final States to;
+        private final SuperStructurePosition toPose;
         private States from;
         private Command innerCmd;
         private boolean canFinish = false;
@@ -172,21 +214,26 @@ public class StateManager {
         private boolean innerFinish = false;
 
         private boolean reachedSetpoint;
+        /** If a run on reach request has started, can be before the setpoint is reached */
+        private boolean reachFired;
 
         public CmdTransitionState(final SuperStructure superStructure, final States to) {
             this.superStructure = superStructure;
             this.to = to;
+            this.toPose = SuperStructurePosition.fromState(to);
             addRequirements(superStructure);
         }
 
         @Override
         public void initialize() {
+            ThreadConfinement.check(LAST_STATE_OWNER);
             this.from = lastState;
             lastState = to;
             this.innerCmd = getTransitionCmd(new TransitionData(from, to, superStructure));
             this.innerInit = false;
             this.innerFinish = false;
             this.reachedSetpoint = false;
+            this.reachFired = false;
             this.deadCycles = 0;
             if (from == null)
                 return;
@@ -202,6 +249,7 @@ public class StateManager {
 
         @Override
         public void execute() {
+            LatencyTracer.executed(Path.SUPERSTRUCTURE);
             // skipping dead cycles
             if (deadCycles > 0) {
                 deadCycles--;
@@ -224,10 +272,13 @@ public class StateManager {
             if (!this.reachedSetpoint && superStructure.reachedSetpoint(to.toleranceMult)) {
                 this.reachedSetpoint = true;
             }
+            if (!this.reachFired) {
+                this.reachFired = this.reachedSetpoint || shouldFireEarly();
+            }
 
             // solving end-effector behavior
-            Double endEffectorVolts = 0.0;
-            Double endEffrctorAmps = 0.0;
+            double endEffectorVolts = 0.0;
+            double endEffrctorAmps = 0.0;
 
             if (to.eeBehavior == EEBehavior.RUN_ON_TRANSITION) {
                 endEffrctorAmps = 15.0;
@@ -238,13 +289,12 @@ public class StateManager {
                 endEffectorVolts = endEffectorVoltage(to);
                 endEffrctorAmps = to.eeRequest.maxCurrent;
             }
-            if (reachedSetpoint) {
-                if (to.eeBehavior == EEBehavior.RUN_ON_START) {
-                    endEffectorVolts = 0.0;
-                } else if (to.eeBehavior == EEBehavior.RUN_ON_REACH) {
-                    endEffectorVolts = endEffectorVoltage(to);
-                    endEffrctorAmps = to.eeRequest.maxCurrent;
-                }
+            if (reachedSetpoint && to.eeBehavior == EEBehavior.RUN_ON_START) {
+                endEffectorVolts = 0.0;
+            }
+            if (reachFired && to.eeBehavior == EEBehavior.RUN_ON_REACH) {
+                endEffectorVolts = endEffectorVoltage(to);
+                endEffrctorAmps = to.eeRequest.maxCurrent;
             }
 
             if (endEffectorVolts == 0.0) {
@@ -254,6 +304,27 @@ public class StateManager {
             superStructure.runEndEffector(endEffectorVolts, endEffrctorAmps);
         }
 
+        /**
+         * @return true if the end-effector can start now because the superstructure
+         *         is predicted to reach the final setpoint within the states lead time
+         */
+        private boolean shouldFireEarly() {
+            if (!kSuperStructure.EE_LEAD_ENABLED
+                    || to.eeBehavior != EEBehavior.RUN_ON_REACH
+                    || to.eeLeadSeconds <= 0.0) {
+                return false;
+            }
+            // transitions can go through intermediate setpoints, only the final one counts
+            if (!toPose.reachedState(superStructure.getSetpoint(), 1.0)) {
+                return false;
+            }
+            if (superStructure.willArriveWithin(to.eeLeadSeconds)) {
+                Logger.recordOutput("SuperStructure/EELeadFired", to.name());
+                return true;
+            }
+            return false;
+        }
+
         @Override
         public void end(boolean interrupted) {
             if (!innerFinish) {
@@ -289,6 +360,7 @@ public class StateManager {
     public static Command dispellGamepiece(SuperStructure superStructure) {
         return superStructure.startEnd(
                 () -> {
+                    ThreadConfinement.check(LAST_STATE_OWNER);
                     if (lastState != null) {
                         superStructure.runEndEffector(endEffectorVoltage(lastState), lastState.eeRequest.maxCurrent);
                     }
@@ -296,11 +368,23 @@ public class StateManager {
                 () -> {
                     superStructure.runEndEffector(0.0, 0.0);
                     GamepieceMode.setHeldPiece(null);
+                    ThreadConfinement.check(LAST_STATE_OWNER);
                     lastState = null;
                 }).withTimeout(0.25);
     }
 
+    /**
+     * @return the state the superstructure was last told to transition to, can be null
+     */
+    public static States getLastState() {
+        ThreadConfinement.check(LAST_STATE_OWNER);
+        return lastState;
+    }
+
     public static Command setLastState(States state) {
-        return Commands.runOnce(() -> lastState = States.STANDBY);
+        return Commands.runOnce(() -> {
+            ThreadConfinement.check(LAST_STATE_OWNER);
+            lastState = States.STANDBY;
+        });
     }
 }
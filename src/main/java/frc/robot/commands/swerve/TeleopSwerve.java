@@ -10,6 +10,8 @@ import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.Constants.*;
+import frc.robot.util.LatencyTracer;
+import frc.robot.util.LatencyTracer.Path;
 
 /** An example command that uses an example subsystem. */
 public class TeleopSwerve extends Command {
@@ -31,6 +33,7 @@ public class TeleopSwerve extends Command {
 
     @Override
     public void execute() {
+        LatencyTracer.executed(Path.DRIVE);
         double translationVal;
         double strafeVal;
         double rotationVal;
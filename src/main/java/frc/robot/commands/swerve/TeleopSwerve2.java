@@ -8,6 +8,8 @@ import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.Constants.ControllerConsts;
 import frc.robot.commands.Helpers;
+import frc.robot.util.LatencyTracer;
+import frc.robot.util.LatencyTracer.Path;
 
 /** An example command that uses an example subsystem. */
 public class TeleopSwerve2 extends Command {
@@ -34,8 +36,14 @@ public class TeleopSwerve2 extends Command {
         this.rotationYSup = Helpers.deadbandSupplier(rotationY, ControllerConsts.RIGHT_DEADBAND);
     }
 
+    @Override
+    public void initialize() {
+        swerve.resetHeadingController();
+    }
+
     @Override
     public void execute() {
+        LatencyTracer.executed(Path.DRIVE);
         swerve.drive(
                 new Translation2d(
                         translationXSup.getAsDouble(), translationYSup.getAsDouble()),
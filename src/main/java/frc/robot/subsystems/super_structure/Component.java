@@ -1,9 +1,17 @@
 package frc.robot.subsystems.super_structure;
 
+import frc.robot.subsystems.super_structure.States.SuperStructurePosition;
 import frc.robot.util.ShuffleboardApi.ShuffleEntryContainer;
 
 public interface Component {
 
+    /**
+     * Waits for the component's signals to update, always called before {@link #periodic()}
+     * but possibly from another thread, so it can't touch anything else
+     */
+    default public void refreshSignals() {
+    };
+
     default public void periodic() {
     };
 
@@ -16,7 +24,35 @@ public interface Component {
      * 
      * @param percentOut of the mechanisms motors
      */
-    public void manualDriveMechanism(Double percentOut);
+    public void manualDriveMechanism(double percentOut);
+
+    /**
+     * Applies a raw voltage to the mechanism, no profiling or safety features,
+     * only meant for characterization
+     * 
+     * @param volts to apply to the mechanisms motors
+     */
+    public void runMechanismVolts(double volts);
+
+    /**
+     * @return the position of the mechanism in its native units (degrees or meters)
+     */
+    public double getMechanismPosition();
+
+    /**
+     * @return the velocity of the mechanism in its native units per second
+     */
+    public double getMechanismVelocity();
+
+    /**
+     * Gives the component the current pose of the whole superstructure,
+     * for feedforwards that depend on the other components
+     * 
+     * @param pose               the current pose of the superstructure
+     * @param loadElevatorMeters the furthest the elevator goes in the current move,
+     *                           what load scheduled constraints should be picked for
+     */
+    default public void updateStructureState(SuperStructurePosition pose, double loadElevatorMeters) {}
 
     /**
      * Stops the mechanism
@@ -0,0 +1,131 @@
+package frc.robot.subsystems.super_structure;
+
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import com.ctre.phoenix6.StatusCode;
+
+import edu.wpi.first.math.MathUtil;
+import frc.robot.GamepieceMode;
+import frc.robot.Constants.kSuperStructure;
+import frc.robot.Constants.kSuperStructure.kElevator;
+import frc.robot.util.ConfigWorker;
+import frc.robot.util.ConfigWorker.Ticket;
+import frc.robot.util.ConfigWorker.WriteState;
+
+/**
+ * Schedules the pivot and wrist gains and constraints on how loaded the arm is,
+ * the worst case constraints are only needed with the elevator out and a cone held.
+ * <p>
+ * The load is quantized into buckets so configs are only re-sent when it meaningfully changes,
+ * the extension it's taken from is latched when the setpoint changes so constraints aren't rewritten mid-move.
+ */
+public class LoadSchedule {
+    /** How many steps the load factor is split into */
+    public static final int BUCKETS = 4;
+    /** The heaviest bucket, what the motors are configured with at boot */
+    public static final int HEAVIEST_BUCKET = BUCKETS - 1;
+
+    /**
+     * @param elevatorMeters the current elevator extension
+     * @param heldPiece      the held gamepiece, null if nothing is held
+     * @return 0.0 with the elevator in and nothing held, 1.0 with it out and a cone held
+     */
+    public static double loadFactor(double elevatorMeters, GamepieceMode heldPiece) {
+        double extension = MathUtil.clamp(
+                (elevatorMeters - kElevator.MIN_METERS) / (kElevator.MAX_METERS - kElevator.MIN_METERS),
+                0.0, 1.0);
+        double piece = 0.0;
+        if (heldPiece == GamepieceMode.CONE) {
+            piece = kSuperStructure.LOAD_CONE_WEIGHT;
+        } else if (heldPiece == GamepieceMode.CUBE) {
+            piece = kSuperStructure.LOAD_CUBE_WEIGHT;
+        }
+        return MathUtil.clamp(extension * kSuperStructure.LOAD_EXTENSION_WEIGHT + piece, 0.0, 1.0);
+    }
+
+    /**
+     * @return the bucket of the load, rounded up so the constraints are never too aggressive
+     */
+    public static int bucket(double loadFactor) {
+        return MathUtil.clamp((int) Math.ceil(loadFactor * HEAVIEST_BUCKET), 0, HEAVIEST_BUCKET);
+    }
+
+    /**
+     * @return the value for the bucket, linearly between the light and heavy values
+     */
+    public static double interpolate(double light, double heavy, int bucket) {
+        return MathUtil.interpolate(light, heavy, bucket / (double) HEAVIEST_BUCKET);
+    }
+
+    /**
+     * @return the pid slot for the bucket, 0 for light loads and 1 for heavy ones
+     */
+    public static int slot(int bucket) {
+        return bucket * 2 > HEAVIEST_BUCKET ? 1 : 0;
+    }
+
+    /**
+     * Sends a motor the constraints of its bucket and tracks which bucket the motor actually has,
+     * the gains should only follow a bucket once its write succeeded.
+     * While a write is pending or after one failed the heaviest bucket is used,
+     * a failed write is followed by the heaviest one until a write succeeds.
+     */
+    public static class Tracker {
+        /** What the motor has isn't known, the last write to it didn't succeed */
+        private static final int UNKNOWN = -1;
+
+        private final String key;
+        private final IntFunction<Supplier<StatusCode>> write;
+        /** The bucket of the latest write */
+        private int requested = HEAVIEST_BUCKET;
+        /** The bucket the motor is known to have, {@link #UNKNOWN} while a write is in flight or failed */
+        private int active = HEAVIEST_BUCKET;
+        private Ticket ticket = null;
+
+        /**
+         * @param key   the {@link ConfigWorker} key of the write
+         * @param write makes the configurator call for a bucket
+         */
+        public Tracker(String key, IntFunction<Supplier<StatusCode>> write) {
+            this.key = key;
+            this.write = write;
+        }
+
+        /**
+         * Should be called every loop
+         *
+         * @param bucket the bucket of the current load
+         * @return the bucket the gains should use
+         */
+        public int update(int bucket) {
+            if (bucket != requested) {
+                submit(bucket);
+            }
+            if (ticket != null && ticket.isDone()) {
+                var state = ticket.getState();
+                ticket = null;
+                if (state == WriteState.SUCCEEDED) {
+                    active = requested;
+                } else {
+                    // what the motor has is unknown, put the worst case back even if that's what failed
+                    submit(HEAVIEST_BUCKET);
+                }
+            }
+            return isActiveKnown() ? active : HEAVIEST_BUCKET;
+        }
+
+        /**
+         * @return if the last write to the motor succeeded, so it has the bucket {@link #update} returns
+         */
+        public boolean isActiveKnown() {
+            return active != UNKNOWN;
+        }
+
+        private void submit(int bucket) {
+            requested = bucket;
+            active = UNKNOWN;
+            ticket = ConfigWorker.submit(key, write.apply(bucket));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package frc.robot.subsystems.super_structure;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * A mechanism is only settled once it has been in tolerance, and slow, for a while,
+ * this stops a mechanism swinging through the setpoint from counting as reached.
+ */
+public class SettleDetector {
+    /** If update hasn't been called for this long the time in band is thrown away */
+    private static final double STALE_SECS = 0.1;
+
+    private final double settleSecs;
+
+    private double inBandSince = Double.NaN;
+    private double lastUpdate = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param settleSecs how long the mechanism has to be in band to be settled
+     */
+    public SettleDetector(double settleSecs) {
+        this.settleSecs = settleSecs;
+    }
+
+    /**
+     * @param inBand if the mechanism is currently within position and velocity tolerance
+     * @return if the mechanism has been in band for long enough
+     */
+    public boolean update(boolean inBand) {
+        double now = Timer.getFPGATimestamp();
+        if (!inBand || now - lastUpdate > STALE_SECS) {
+            inBandSince = Double.NaN;
+        }
+        lastUpdate = now;
+        if (inBand && Double.isNaN(inBandSince)) {
+            inBandSince = now;
+        }
+        return getTimeInBand() >= settleSecs;
+    }
+
+    /**
+     * Throws away the time in band, should be called whenever the setpoint changes
+     */
+    public void reset() {
+        inBandSince = Double.NaN;
+    }
+
+    /**
+     * @return how long the mechanism has been in band, 0.0 if it isn't
+     */
+    public double getTimeInBand() {
+        if (Double.isNaN(inBandSince)) {
+            return 0.0;
+        }
+        return lastUpdate - inBandSince;
+    }
+
+    /**
+     * Predicts how long a trapezoidal profile will take to cover the remaining distance,
+     * jerk is ignored so this is a slight underestimate for jerk limited profiles
+     *
+     * @param error       the distance left to the target
+     * @param velocity    the current velocity, positive is towards the target
+     * @param maxVelocity the cruise velocity of the profile
+     * @param maxAccel    the acceleration of the profile
+     * @return the seconds until the target is reached
+     */
+    public static double timeToArrive(double error, double velocity, double maxVelocity, double maxAccel) {
+        // flip so the target is always ahead
+        if (error < 0.0) {
+            error = -error;
+            velocity = -velocity;
+        }
+
+        double time = 0.0;
+        if (velocity < 0.0) {
+            // moving away, stop first then treat it as starting from rest further back
+            time += -velocity / maxAccel;
+            error += (velocity * velocity) / (2.0 * maxAccel);
+            velocity = 0.0;
+        }
+
+        double stoppingDistance = (velocity * velocity) / (2.0 * maxAccel);
+        if (stoppingDistance >= error) {
+            // already braking, arrives as it comes to a stop
+            return time + velocity / maxAccel;
+        }
+
+        // the peak velocity if the profile never cruises
+        double peakVelocity = Math.sqrt(maxAccel * error + (velocity * velocity) / 2.0);
+        if (peakVelocity <= maxVelocity) {
+            return time + (peakVelocity - velocity) / maxAccel + peakVelocity / maxAccel;
+        }
+
+        double rampTime = Math.abs(maxVelocity - velocity) / maxAccel;
+        double rampDistance = Math.abs(maxVelocity * maxVelocity - velocity * velocity) / (2.0 * maxAccel);
+        double brakeTime = maxVelocity / maxAccel;
+        double brakeDistance = (maxVelocity * maxVelocity) / (2.0 * maxAccel);
+        double cruiseTime = Math.max(0.0, error - rampDistance - brakeDistance) / maxVelocity;
+        return time + rampTime + cruiseTime + brakeTime;
+    }
+}
@@ -12,20 +12,27 @@ public enum States {
     PLACE_LOW_BACK(60.0, kWrist.HOME_DEGREES-7.0, kElevator.HOME_METERS, EERequest.OUTTAKING, EEBehavior.RUN_ON_TRANSITION, true, 1.3),
     PLACE_LOW_FRONT(13.0, 15.0, kElevator.HOME_METERS, EERequest.SPIT, EEBehavior.RUN_ON_TRANSITION, true, 1.3),
     PICKUP_GROUND(kPivot.HOME_DEGREES, 13.0, kElevator.HOME_METERS, EERequest.INTAKING, EEBehavior.RUN_WHOLE_TIME, false, 1.3),
-    PICKUP_STATION(63.1, -63.0, 1.08, EERequest.INTAKING, EEBehavior.RUN_ON_REACH, false),
+    PICKUP_STATION(63.1, -63.0, 1.08, EERequest.INTAKING, EEBehavior.RUN_ON_REACH, false, 1.0, 0.25),
     PICKUP_CHUTE(48.0, -10.0, kElevator.HOME_METERS, EERequest.INTAKING, EEBehavior.RUN_WHOLE_TIME, false),
-    TREBUCHET(85.0, 90.0, kElevator.HOME_METERS, EERequest.OUTTAKING, EEBehavior.RUN_ON_REACH, true, 15.0);
+    TREBUCHET(85.0, 90.0, kElevator.HOME_METERS, EERequest.OUTTAKING, EEBehavior.RUN_ON_REACH, true, 15.0, 0.08);
 
-    public final Double pivotDegrees;
-    public final Double wristDegrees;
-    public final Double elevatorMeters;
+    public final double pivotDegrees;
+    public final double wristDegrees;
+    public final double elevatorMeters;
     public final EERequest eeRequest;
     public final EEBehavior eeBehavior;
     public final boolean useHeldGamepiece;
-    public final Double toleranceMult;
+    public final double toleranceMult;
+    /**
+     * How many seconds before the setpoint is predicted to be reached that a
+     * {@link EEBehavior#RUN_ON_REACH} request can start.
+     * The values are estimates of how long the end-effector takes to spin up,
+     * they haven't been tuned in sim or on the robot
+     */
+    public final double eeLeadSeconds;
 
     States(
-            Double pivotDegrees, Double wristDegrees, Double elevatorMeters,
+            double pivotDegrees, double wristDegrees, double elevatorMeters,
             EERequest eeRequest, EEBehavior eeBehavior,
             boolean useHeldGamepiece) {
         this.pivotDegrees = pivotDegrees;
@@ -35,12 +42,13 @@ public enum States {
         this.eeBehavior = eeBehavior;
         this.useHeldGamepiece = useHeldGamepiece;
         this.toleranceMult = 1.0;
+        this.eeLeadSeconds = 0.0;
     }
 
     States(
-            Double pivotDegrees, Double wristDegrees, Double elevatorMeters,
+            double pivotDegrees, double wristDegrees, double elevatorMeters,
             EERequest eeRequest, EEBehavior eeBehavior, boolean useHeldGamepiece,
-            Double toleranceMult) {
+            double toleranceMult) {
         this.pivotDegrees = pivotDegrees;
         this.wristDegrees = wristDegrees;
         this.elevatorMeters = elevatorMeters;
@@ -48,15 +56,35 @@ public enum States {
         this.eeBehavior = eeBehavior;
         this.useHeldGamepiece = useHeldGamepiece;
         this.toleranceMult = toleranceMult;
+        this.eeLeadSeconds = 0.0;
     }
 
+    States(
+            double pivotDegrees, double wristDegrees, double elevatorMeters,
+            EERequest eeRequest, EEBehavior eeBehavior, boolean useHeldGamepiece,
+            double toleranceMult, double eeLeadSeconds) {
+        this.pivotDegrees = pivotDegrees;
+        this.wristDegrees = wristDegrees;
+        this.elevatorMeters = elevatorMeters;
+        this.eeRequest = eeRequest;
+        this.eeBehavior = eeBehavior;
+        this.useHeldGamepiece = useHeldGamepiece;
+        this.toleranceMult = toleranceMult;
+        this.eeLeadSeconds = eeLeadSeconds;
+    }
+
+    /**
+     * The voltages are sent to the motor as is, they're what the end-effector
+     * has always run at, the table used to be divided by 12 on the way out
+     */
     public enum EERequest {
         IDLE(0.0, 0.0, 0.0, false),
-        INTAKING(12.0, -12.0, 120.0, false),
-        OUTTAKING(-12.0, 12.0, 120.0, true),
-        SPIT(-8.0, 8.0, 40.0, true),
-        HOLD_TIGHT(2.5, -2.5, 15.0, false),
-        HOLD(1.2, -1.2, 7.5, false);
+        INTAKING(1.0, -1.0, 120.0, false),
+        OUTTAKING(-1.0, 1.0, 120.0, true),
+        SPIT(-0.67, 0.67, 40.0, true),
+        // just enough to keep a piece from slipping out
+        HOLD_TIGHT(0.21, -0.21, 15.0, false),
+        HOLD(0.1, -0.1, 7.5, false);
 
         public final double voltageCone, voltageCube, maxCurrent;
         public final boolean expelling;
@@ -86,32 +114,48 @@ public enum States {
         RUN_WHOLE_TIME,
         /** Runs at the start of the state until its setpoint is reached */
         RUN_ON_START,
-        /** Runs once the setpoint is reached until a new state transition */
+        /**
+         * Runs once the setpoint is reached until a new state transition,
+         * can start early if the state has an {@link States#eeLeadSeconds}
+         */
         RUN_ON_REACH,
         /** Run when the state is transitioning for ~0.4 seconds */
         RUN_ON_TRANSITION;
     }
 
     /**
-     * A compact way of passing around data about the super structures current poses
+     * A compact way of passing around data about the super structures current poses,
+     * mutable so a snapshot can be refilled every cycle instead of allocated
      */
     public static class SuperStructurePosition {
-        public final Double wristDegrees;
-        public final Double pivotDegrees;
-        public final Double elevatorMeters;
-        public final Double endEffectorVoltage;
+        public double wristDegrees;
+        public double pivotDegrees;
+        public double elevatorMeters;
+        public double endEffectorVoltage;
 
         public SuperStructurePosition(
-                Double wristDegrees, Double pivotDegrees,
-                Double elevatorMeters, Double endEffectorVoltage) {
+                double wristDegrees, double pivotDegrees,
+                double elevatorMeters, double endEffectorVoltage) {
+            this.set(wristDegrees, pivotDegrees, elevatorMeters, endEffectorVoltage);
+        }
+
+        /**
+         * Overwrites every field
+         * 
+         * @return this position for chaining
+         */
+        public SuperStructurePosition set(
+                double wristDegrees, double pivotDegrees,
+                double elevatorMeters, double endEffectorVoltage) {
             this.wristDegrees = wristDegrees;
             this.pivotDegrees = pivotDegrees;
             this.elevatorMeters = elevatorMeters;
             this.endEffectorVoltage = endEffectorVoltage;
+            return this;
         }
 
         /** Does not check end-effector */
-        public boolean reachedState(SuperStructurePosition pose, Double toleranceMult) {
+        public boolean reachedState(SuperStructurePosition pose, double toleranceMult) {
             return Math.abs(pose.pivotDegrees - pivotDegrees) < (kPivot.TOLERANCE * toleranceMult) &&
                     Math.abs(pose.wristDegrees - wristDegrees) < (kWrist.TOLERANCE * toleranceMult) &&
                     Math.abs(pose.elevatorMeters - elevatorMeters) < (kElevator.TOLERANCE * toleranceMult);
@@ -124,7 +168,7 @@ public enum States {
                     state.elevatorMeters, 0.0);
         }
 
-        public static SuperStructurePosition fromState(States state, Double endEffector) {
+        public static SuperStructurePosition fromState(States state, double endEffector) {
             return new SuperStructurePosition(
                     state.wristDegrees, state.pivotDegrees,
                     state.elevatorMeters, endEffector);
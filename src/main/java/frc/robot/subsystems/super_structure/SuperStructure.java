@@ -2,10 +2,17 @@ package frc.robot.subsystems.super_structure;
 
 import java.util.function.BooleanSupplier;
 
+import org.littletonrobotics.junction.Logger;
+
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.GamepieceMode;
 import frc.robot.Robot;
+import frc.robot.Constants.kSuperStructure;
+import frc.robot.Constants.kSuperStructure.*;
+import frc.robot.util.BootConfigurator;
+import frc.robot.util.ConcurrentPeriodic;
 import frc.robot.util.ShuffleboardApi;
 import frc.robot.subsystems.super_structure.States.SuperStructurePosition;
 import frc.robot.subsystems.super_structure.pivot.*;
@@ -22,6 +29,19 @@ public class SuperStructure extends SubsystemBase {
     private final Visualizer visualizer = new Visualizer();
 
     private SuperStructurePosition setpoint = SuperStructurePosition.fromState(States.HOME);
+    /** Refilled by {@link #getPose()} */
+    private final SuperStructurePosition poseSnapshot = new SuperStructurePosition(0.0, 0.0, 0.0, 0.0);
+    private SuperStructureMoveOrder moveOrder = SuperStructureMoveOrder.SELF_RESOLVE;
+
+    private final SettleDetector settleDetector = new SettleDetector(kSuperStructure.SETTLE_SECONDS);
+    /** What the settle detector is timing, a copy so a mutated setpoint still counts as a change */
+    private final SuperStructurePosition settleTarget = SuperStructurePosition.fromState(States.HOME);
+
+    /**
+     * The furthest the elevator goes in the current move, latched when the setpoint changes
+     * so the load schedule doesn't rewrite constraints as the elevator travels, starts at the worst case
+     */
+    private double loadElevatorMeters = kElevator.MAX_METERS;
 
     private boolean isHomed = false;
 
@@ -40,6 +60,8 @@ public class SuperStructure extends SubsystemBase {
         setupShuffleboard();
         visualizer.updateSetpoint(setpoint);
         visualizer.updateCurrent(setpoint);
+
+        ConcurrentPeriodic.register("SuperStructure", this::refreshSignals);
     }
 
     public static enum SuperStructureMoveOrder {
@@ -54,7 +76,8 @@ public class SuperStructure extends SubsystemBase {
         if (!checkSuperstructureEnabled()) return false;
 
         this.visualizer.updateSetpoint(to);
-        this.setpoint = to;
+        this.changeSetpoint(to);
+        this.moveOrder = order;
         this.isHomed = false;
 
         // only pivot or wrist+elevator should run at a time
@@ -116,7 +139,7 @@ public class SuperStructure extends SubsystemBase {
      * @return true if all mechanisms have reached their home position
      */
     public boolean home(boolean force) {
-        this.setpoint = SuperStructurePosition.fromState(States.HOME);
+        this.changeSetpoint(SuperStructurePosition.fromState(States.HOME));
         this.visualizer.updateSetpoint(this.setpoint);
         // this will do wrist -> elevator -> pivot
         if (this.wrist.homeMechanism(force)
@@ -137,17 +160,25 @@ public class SuperStructure extends SubsystemBase {
         return this.isHomed;
     }
 
-    public void runEndEffector(Double volts, Double currentLimit) {
+    public void runEndEffector(double volts, double currentLimit) {
         if (!checkSuperstructureEnabled()) return;
 
         // when outtaking this should be false
         this.endEffector.setEndEffectorCurrentLimits(currentLimit);
-        // assume max voltage is 12.0
-        this.endEffector.runEndEffector(volts / 12.0);
+        this.endEffector.runEndEffector(volts);
+    }
+
+    /**
+     * @return true if the end-effector has stalled on a gamepiece while intaking
+     */
+    public boolean hasGamepiece() {
+        return this.endEffector.hasGamepiece();
     }
 
     public boolean checkSuperstructureEnabled() {
-        return NetworkTableInstance.getDefault()
+        // motors without their config could run with the wrong inversion or limits
+        return BootConfigurator.isComplete(kSuperStructure.CANBUS)
+        && NetworkTableInstance.getDefault()
         .getEntry("/Shuffleboard/Driver/Enable Superstructure")
         .getBoolean(false);
     }
@@ -159,15 +190,99 @@ public class SuperStructure extends SubsystemBase {
         this.endEffector.runEndEffector(0.0);
     }
 
-    public boolean reachedSetpoint(Double toleranceMult) {
-        return this.setpoint.reachedState(this.getPose(), toleranceMult);
+    /**
+     * Every reassignment of the setpoint goes through here,
+     * time settled at the old setpoint doesn't count towards a new one
+     */
+    private void changeSetpoint(SuperStructurePosition to) {
+        this.setpoint = to;
+        if (to.wristDegrees != settleTarget.wristDegrees
+                || to.pivotDegrees != settleTarget.pivotDegrees
+                || to.elevatorMeters != settleTarget.elevatorMeters) {
+            settleDetector.reset();
+            loadElevatorMeters = Math.max(this.elevator.getElevatorMeters(), to.elevatorMeters);
+            settleTarget.set(to.wristDegrees, to.pivotDegrees, to.elevatorMeters, to.endEffectorVoltage);
+        }
+    }
+
+    /**
+     * @param toleranceMult scales the position and velocity tolerances
+     * @return true once every component has been in tolerance and slowed down
+     *         for {@link kSuperStructure#SETTLE_SECONDS}
+     */
+    public boolean reachedSetpoint(double toleranceMult) {
+        boolean inBand = this.setpoint.reachedState(this.getPose(), toleranceMult)
+                && Math.abs(this.pivot.getMechanismVelocity()) < kPivot.VELOCITY_TOLERANCE * toleranceMult
+                && Math.abs(this.wrist.getMechanismVelocity()) < kWrist.VELOCITY_TOLERANCE * toleranceMult
+                && Math.abs(this.elevator.getMechanismVelocity()) < kElevator.VELOCITY_TOLERANCE * toleranceMult;
+        return settleDetector.update(inBand);
+    }
+
+    /**
+     * Predicts how long until the superstructure reaches its setpoint from the
+     * current velocities and the motion magic constraints, the pivot is assumed
+     * to move separately from the wrist and elevator unless every component
+     * is moving at once.
+     * 
+     * @return the predicted seconds until the setpoint is reached
+     */
+    public double predictedTimeToSetpoint() {
+        // mirrors the constraint schedule in the pivot and wrist
+        int bucket = LoadSchedule.bucket(
+                LoadSchedule.loadFactor(loadElevatorMeters, GamepieceMode.getHeldPiece()));
+        double degreesPerRotorRot = 360.0 * kPivot.MOTOR_TO_MECHANISM_RATIO;
+        double pivotTime = SettleDetector.timeToArrive(
+                this.setpoint.pivotDegrees - this.pivot.getPivotDegrees(),
+                this.pivot.getMechanismVelocity(),
+                LoadSchedule.interpolate(kPivot.MAX_VELOCITY_LIGHT, kPivot.MAX_VELOCITY, bucket)
+                        * degreesPerRotorRot,
+                LoadSchedule.interpolate(kPivot.MAX_ACCELERATION_LIGHT, kPivot.MAX_ACCELERATION, bucket)
+                        * degreesPerRotorRot);
+
+        degreesPerRotorRot = 360.0 * kWrist.MOTOR_TO_MECHANISM_RATIO;
+        double wristTime = SettleDetector.timeToArrive(
+                this.setpoint.wristDegrees - this.wrist.getWristDegrees(),
+                this.wrist.getMechanismVelocity(),
+                LoadSchedule.interpolate(kWrist.MAX_VELOCITY_LIGHT, kWrist.MAX_VELOCITY, bucket)
+                        * degreesPerRotorRot,
+                LoadSchedule.interpolate(kWrist.MAX_ACCELERATION_LIGHT, kWrist.MAX_ACCELERATION, bucket)
+                        * degreesPerRotorRot);
+
+        double metersPerRotorRot = kElevator.MOTOR_TO_MECHANISM_RATIO
+                * (kElevator.MECHANISM_DIAMETER_METERS * Math.PI);
+        double elevatorTime = SettleDetector.timeToArrive(
+                this.setpoint.elevatorMeters - this.elevator.getElevatorMeters(),
+                this.elevator.getMechanismVelocity(),
+                kElevator.MAX_VELOCITY * metersPerRotorRot,
+                kElevator.MAX_ACCELERATION * metersPerRotorRot);
+
+        if (this.moveOrder == SuperStructureMoveOrder.ALL_AT_ONCE) {
+            return Math.max(pivotTime, Math.max(wristTime, elevatorTime));
+        }
+        return pivotTime + Math.max(wristTime, elevatorTime);
+    }
+
+    /**
+     * @param seconds how far ahead to look
+     * @return true if the superstructure is predicted to reach its setpoint within the given time
+     */
+    public boolean willArriveWithin(double seconds) {
+        return predictedTimeToSetpoint() <= seconds;
+    }
+
+    /**
+     * @return the position the superstructure is currently moving to
+     */
+    public SuperStructurePosition getSetpoint() {
+        return this.setpoint;
     }
 
     /**
-     * @return the current position on the superstructure
+     * @return the current position on the superstructure,
+     *         the same snapshot is refilled every call so copy it to hold onto it
      */
     public SuperStructurePosition getPose() {
-        return new SuperStructurePosition(
+        return this.poseSnapshot.set(
                 this.wrist.getWristDegrees(),
                 this.pivot.getPivotDegrees(),
                 this.elevator.getElevatorMeters(),
@@ -183,7 +298,7 @@ public class SuperStructure extends SubsystemBase {
      * @param elevatorPercent    of the elevator mechanisms motors
      * @param endEffectorPercent of the end-effector mechanisms motors
      */
-    public void manualControl(Double wristPercent, Double pivotPercent, Double elevatorPercent, Double endEffectorPercent) {
+    public void manualControl(double wristPercent, double pivotPercent, double elevatorPercent, double endEffectorPercent) {
         if (!checkSuperstructureEnabled()) return;
         
         this.wrist.manualDriveMechanism(wristPercent);
@@ -192,6 +307,53 @@ public class SuperStructure extends SubsystemBase {
         this.endEffector.manualDriveMechanism(endEffectorPercent);
     }
 
+    public static enum CharacterizedComponent {
+        WRIST,
+        PIVOT,
+        ELEVATOR
+    }
+
+    private Component getComponent(CharacterizedComponent component) {
+        switch (component) {
+            case WRIST:
+                return this.wrist;
+            case PIVOT:
+                return this.pivot;
+            default:
+                return this.elevator;
+        }
+    }
+
+    /**
+     * To be used for characterization, bypasses move orders
+     * and all safety features except the enable toggle
+     * 
+     * @param component to apply the voltage to
+     * @param volts     to apply
+     */
+    public void runCharacterizationVolts(CharacterizedComponent component, double volts) {
+        if (!checkSuperstructureEnabled()) {
+            this.getComponent(component).stopMechanism();
+            return;
+        }
+        this.isHomed = false;
+        this.getComponent(component).runMechanismVolts(volts);
+    }
+
+    /**
+     * @return the components position in its native units (degrees or meters)
+     */
+    public double getCharacterizationPosition(CharacterizedComponent component) {
+        return this.getComponent(component).getMechanismPosition();
+    }
+
+    /**
+     * @return the components velocity in its native units per second
+     */
+    public double getCharacterizationVelocity(CharacterizedComponent component) {
+        return this.getComponent(component).getMechanismVelocity();
+    }
+
     /** once moved over to TEMPLATE this can be removed */
     private void setupShuffleboard() {
         var tab = ShuffleboardApi.getTab("SuperStructure");
@@ -220,14 +382,37 @@ public class SuperStructure extends SubsystemBase {
         visualizer.setShuffleboardTab(tab);
     }
 
+    /**
+     * Waits for every component's signals, runs on the {@link ConcurrentPeriodic} pool when it's enabled
+     */
+    private void refreshSignals() {
+        this.wrist.refreshSignals();
+        this.elevator.refreshSignals();
+        this.pivot.refreshSignals();
+        this.endEffector.refreshSignals();
+    }
+
     @Override
     public void periodic() {
+        if (!ConcurrentPeriodic.isEnabled()) {
+            refreshSignals();
+        }
         this.wrist.periodic();
         this.elevator.periodic();
         this.pivot.periodic();
         this.endEffector.periodic();
 
-        visualizer.updateCurrent(getPose());
+        var pose = getPose();
+        // only a move that didn't go through a setpoint, like manual control, can pass the latch
+        loadElevatorMeters = Math.max(loadElevatorMeters, pose.elevatorMeters);
+        this.wrist.updateStructureState(pose, loadElevatorMeters);
+        this.elevator.updateStructureState(pose, loadElevatorMeters);
+        this.pivot.updateStructureState(pose, loadElevatorMeters);
+
+        visualizer.updateCurrent(pose);
+
+        Logger.recordOutput("SuperStructure/PredictedArrivalSecs", predictedTimeToSetpoint());
+        Logger.recordOutput("SuperStructure/SettledSecs", settleDetector.getTimeInBand());
 
         if (DriverStation.isDisabled() && this.getCurrentCommand() != null) {
             this.getCurrentCommand().cancel();
@@ -15,7 +15,7 @@ public class Visualizer {
         private final MechanismLigament2d elevatorCurrent, wristLowerCurrent, wristUpperCurrent;
         private final MechanismLigament2d elevatorSetpoint, wristLowerSetpoint, wristUpperSetpoint;
 
-        private final static Double ELEVATOR_RANGE = Constants.kSuperStructure.Specs.ELEVATOR_MAX_METERS
+        private final static double ELEVATOR_RANGE = Constants.kSuperStructure.Specs.ELEVATOR_MAX_METERS
                         - Constants.kSuperStructure.Specs.ELEVATOR_MIN_METERS;
 
         public Visualizer() {
@@ -81,7 +81,7 @@ public class Visualizer {
 
                 // lerp the elevator color based on % of range
                 // 0% = green, 100% = red
-                Double percent = (currentForm.elevatorMeters - Constants.kSuperStructure.Specs.ELEVATOR_MIN_METERS)
+                double percent = (currentForm.elevatorMeters - Constants.kSuperStructure.Specs.ELEVATOR_MIN_METERS)
                                 / ELEVATOR_RANGE;
                 int red = (int) (percent * 255);
                 int green = (int) ((1 - percent) * 255);
@@ -17,8 +17,10 @@ public interface Elevator extends Component {
         public double leftTemp = 0.0, rightTemp = 0.0;
         public boolean isLimitSwitchHit = false;
         public boolean isHomed = false;
+        /** When the device sampled the position, phoenix time in seconds */
+        public double motorTimestamp = 0.0;
 
-        public ElevatorInputs(Double startingMeters) {
+        public ElevatorInputs(double startingMeters) {
             this.meters = startingMeters;
             this.targetMeters = startingMeters;
         }
@@ -35,6 +37,7 @@ public interface Elevator extends Component {
             table.put("ElevatorRightTemp", rightTemp);
             table.put("ElevatorLimitSwitch Hit", isLimitSwitchHit);
             table.put("ElevatorHomed", isHomed);
+            table.put("ElevatorMotorTimestamp", motorTimestamp);
         }
 
         @Override
@@ -49,6 +52,7 @@ public interface Elevator extends Component {
             rightTemp = table.get("ElevatorRightTemp", rightTemp);
             isLimitSwitchHit = table.get("ElevatorLimitSwitch Hit", isLimitSwitchHit);
             isHomed = table.get("ElevatorHomed", isHomed);
+            motorTimestamp = table.get("ElevatorMotorTimestamp", motorTimestamp);
         }
     }
 
@@ -60,9 +64,14 @@ public interface Elevator extends Component {
      *               max: {@link kElevator#ELEVATOR_MAX_METERS})
      * @return true if meters has been reached
      */
-    public boolean setElevatorMeters(Double meters);
+    public boolean setElevatorMeters(double meters);
 
-    public Double getElevatorMeters();
+    public double getElevatorMeters();
+
+    @Override
+    default public double getMechanismPosition() {
+        return this.getElevatorMeters();
+    }
 
     /**
      * @return if the reverse limit switch is activated
@@ -7,7 +7,8 @@ import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
 import com.ctre.phoenix6.controls.DutyCycleOut;
 import com.ctre.phoenix6.controls.Follower;
-import com.ctre.phoenix6.controls.MotionMagicDutyCycle;
+import com.ctre.phoenix6.controls.MotionMagicVoltage;
+import com.ctre.phoenix6.controls.VoltageOut;
 import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.InvertedValue;
 import com.ctre.phoenix6.signals.NeutralModeValue;
@@ -15,7 +16,15 @@ import com.ctre.phoenix6.signals.ReverseLimitValue;
 
 import frc.robot.Constants.kSuperStructure;
 import frc.robot.Constants.kSuperStructure.kElevator;
+import frc.robot.subsystems.super_structure.States.SuperStructurePosition;
+import frc.robot.util.BootConfigurator;
+import frc.robot.util.ConfigWorker;
+import frc.robot.util.ConfigWorker.Ticket;
+import frc.robot.util.LatencyCompensator;
+import frc.robot.util.LatencyTracer;
+import frc.robot.util.LatencyTracer.Path;
 import frc.robot.util.ShuffleboardApi.ShuffleEntryContainer;
+import frc.robot.util.SignalPlanner;
 
 public class ElevatorReal implements Elevator {
     /** Right */
@@ -26,31 +35,36 @@ public class ElevatorReal implements Elevator {
     private final StatusSignal<Double> motorRots, motorVelo, motorVolts;
     private final StatusSignal<Double> leftMotorAmps, rightMotorAmps, leftMotorTemp, rightMotorTemp;
     private final StatusSignal<ReverseLimitValue> reverseLimitSwitch;
+    private final LatencyCompensator motorCompensator = new LatencyCompensator();
 
     private final ElevatorInputs inputs;
 
     private boolean isHomed = false;
+    /** The encoder re-zero of the current homing, null if there is none in flight */
+    private Ticket homeTicket = null;
+    private double gravityVolts = 0.0;
 
-    private Double mechMetersToMotorRots(Double meters) {
+    private double mechMetersToMotorRots(double meters) {
         return ((meters - kElevator.HOME_METERS)
                 / (kElevator.MECHANISM_DIAMETER_METERS * Math.PI))
                 / kElevator.MOTOR_TO_MECHANISM_RATIO;
     }
 
-    private Double motorRotsToMechMeters(Double motorRots) {
+    private double motorRotsToMechMeters(double motorRots) {
         return (motorRots * kElevator.MOTOR_TO_MECHANISM_RATIO)
                 * (kElevator.MECHANISM_DIAMETER_METERS * Math.PI)
                 + kElevator.HOME_METERS;
     }
 
-    public ElevatorReal(Double startingMeters) {
+    public ElevatorReal(double startingMeters) {
         // Right
         leaderMotor = new TalonFX(kElevator.ELEVATOR_RIGHT_MOTOR_ID, kSuperStructure.CANBUS);
-        leaderMotor.getConfigurator().apply(getMotorConfiguration());
+        BootConfigurator.talonFX("Elevator/Leader", leaderMotor, getMotorConfiguration(),
+                () -> leaderMotor.setPosition(mechMetersToMotorRots(startingMeters)));
 
         // Left
         followerMotor = new TalonFX(kElevator.ELEVATOR_LEFT_MOTOR_ID, kSuperStructure.CANBUS);
-        followerMotor.getConfigurator().apply(getMotorConfiguration());
+        BootConfigurator.talonFX("Elevator/Follower", followerMotor, getMotorConfiguration(), null);
         followerMotor.setControl(new Follower(kElevator.ELEVATOR_RIGHT_MOTOR_ID, true));
 
         motorRots = leaderMotor.getRotorPosition();
@@ -60,19 +74,32 @@ public class ElevatorReal implements Elevator {
         rightMotorAmps = leaderMotor.getStatorCurrent();
         leftMotorTemp = followerMotor.getDeviceTemp();
         rightMotorTemp = leaderMotor.getDeviceTemp();
-        rightMotorTemp.setUpdateFrequency(4);
-        leftMotorTemp.setUpdateFrequency(4);
         reverseLimitSwitch = leaderMotor.getReverseLimit();
 
-        leaderMotor.setPosition(mechMetersToMotorRots(startingMeters));
+        SignalPlanner.plan("Elevator/Leader", leaderMotor, 100.0, motorRots, motorVelo, reverseLimitSwitch);
+        // the follower mirrors the leader's output from this
+        SignalPlanner.plan("Elevator/Leader", leaderMotor, 100.0, leaderMotor.getDutyCycle());
+        SignalPlanner.plan("Elevator/Leader", leaderMotor, 50.0, rightMotorAmps);
+        SignalPlanner.plan("Elevator/Leader", leaderMotor, 10.0, motorVolts);
+        SignalPlanner.plan("Elevator/Leader", leaderMotor, 4.0, rightMotorTemp);
+        SignalPlanner.plan("Elevator/Follower", followerMotor, 50.0, leftMotorAmps);
+        SignalPlanner.plan("Elevator/Follower", followerMotor, 4.0, leftMotorTemp);
+
         inputs = new ElevatorInputs(startingMeters);
     }
 
     private TalonFXConfiguration getMotorConfiguration() {
         var motorCfg = new TalonFXConfiguration();
-        motorCfg.Slot0.kP = kElevator.MOTOR_kP;
-        motorCfg.Slot0.kI = kElevator.MOTOR_kI;
-        motorCfg.Slot0.kD = kElevator.MOTOR_kD;
+        // pid gains were tuned against duty cycle, the requests are now in volts
+        motorCfg.Slot0.kP = kElevator.MOTOR_kP * 12.0;
+        motorCfg.Slot0.kI = kElevator.MOTOR_kI * 12.0;
+        motorCfg.Slot0.kD = kElevator.MOTOR_kD * 12.0;
+        // feedforwards are per mechanism meter, the talon wants per rotor rotation
+        double metersPerRotorRot = kElevator.MOTOR_TO_MECHANISM_RATIO
+                * (kElevator.MECHANISM_DIAMETER_METERS * Math.PI);
+        motorCfg.Slot0.kS = kElevator.MOTOR_kS;
+        motorCfg.Slot0.kV = kElevator.MOTOR_kV * metersPerRotorRot;
+        motorCfg.Slot0.kA = kElevator.MOTOR_kA * metersPerRotorRot;
 
         motorCfg.MotionMagic.MotionMagicCruiseVelocity = kElevator.MAX_VELOCITY;
         motorCfg.MotionMagic.MotionMagicAcceleration = kElevator.MAX_ACCELERATION;
@@ -92,23 +119,47 @@ public class ElevatorReal implements Elevator {
     }
 
     @Override
-    public boolean setElevatorMeters(Double meters) {
+    public boolean setElevatorMeters(double meters) {
         this.isHomed = false;
-        var posControlRequest = new MotionMagicDutyCycle(mechMetersToMotorRots(meters));
+        this.homeTicket = null;
+        var posControlRequest = new MotionMagicVoltage(mechMetersToMotorRots(meters))
+                .withFeedForward(gravityVolts);
         this.leaderMotor.setControl(posControlRequest);
+        LatencyTracer.actuated(Path.SUPERSTRUCTURE);
         return Math.abs(meters - getElevatorMeters()) < kElevator.TOLERANCE;
     }
 
     @Override
-    public Double getElevatorMeters() {
+    public double getElevatorMeters() {
         return inputs.meters;
     }
 
     @Override
-    public void manualDriveMechanism(Double percentOut) {
+    public double getMechanismVelocity() {
+        return inputs.metersPerSec;
+    }
+
+    @Override
+    public void updateStructureState(SuperStructurePosition pose, double loadElevatorMeters) {
+        // only the part of gravity along the elevator matters, none when the pivot is flat
+        gravityVolts = kElevator.MOTOR_kG * Math.sin(Math.toRadians(pose.pivotDegrees));
+        Logger.recordOutput("SuperStructure/Elevator/GravityVolts", gravityVolts);
+    }
+
+    @Override
+    public void manualDriveMechanism(double percentOut) {
         var percentControlRequest = new DutyCycleOut(percentOut, true, false, false, false);
         this.leaderMotor.setControl(percentControlRequest);
+        LatencyTracer.actuated(Path.SUPERSTRUCTURE);
         this.isHomed = false;
+        this.homeTicket = null;
+    }
+
+    @Override
+    public void runMechanismVolts(double volts) {
+        this.isHomed = false;
+        this.homeTicket = null;
+        this.leaderMotor.setControl(new VoltageOut(volts));
     }
 
     @Override
@@ -125,17 +176,41 @@ public class ElevatorReal implements Elevator {
     public boolean homeMechanism(boolean force) {
         if (force) {
             isHomed = false;
+            homeTicket = null;
         }
         if (this.isHomed) {
             return true;
         }
+        if (homeTicket != null) {
+            return awaitHomeTicket();
+        }
         this.manualDriveMechanism(-0.2);
         if (this.isLimitSwitchHit()) {
             this.stopMechanism();
-            this.leaderMotor.setPosition(0.0);
-            this.isHomed = true;
+            homeTicket = ConfigWorker.submit("Elevator/Position", () -> this.leaderMotor.setPosition(0.0));
+        }
+        return this.isHomed;
+    }
+
+    /**
+     * Holds the output at zero until the re-zero reached the motor,
+     * a position request before that would be against the old zero
+     */
+    private boolean awaitHomeTicket() {
+        this.stopMechanism();
+        switch (homeTicket.getState()) {
+            case SUCCEEDED:
+                isHomed = true;
+                homeTicket = null;
+                break;
+            case PENDING:
+                break;
+            default:
+                // the re-zero never landed, home again
+                homeTicket = null;
+                break;
         }
-        return this.isLimitSwitchHit();
+        return isHomed;
     }
 
     @Override
@@ -148,16 +223,22 @@ public class ElevatorReal implements Elevator {
     }
 
     @Override
-    public void periodic() {
+    public void refreshSignals() {
         BaseStatusSignal.refreshAll(
             motorRots, motorVelo,
             motorVolts, reverseLimitSwitch,
             leftMotorAmps, rightMotorAmps,
             leftMotorTemp, rightMotorTemp
         );
+    }
 
-        inputs.meters = motorRotsToMechMeters(motorRots.getValue());
-        inputs.metersPerSec = motorRotsToMechMeters(motorVelo.getValue());
+    @Override
+    public void periodic() {
+        inputs.meters = motorRotsToMechMeters(motorCompensator.update(motorRots, motorVelo));
+        inputs.motorTimestamp = motorRots.getTimestamp().getTime();
+        // velocity has no home offset so it can't use motorRotsToMechMeters
+        inputs.metersPerSec = (motorVelo.getValue() * kElevator.MOTOR_TO_MECHANISM_RATIO)
+                * (kElevator.MECHANISM_DIAMETER_METERS * Math.PI);
         inputs.isLimitSwitchHit = reverseLimitSwitch.getValue() == ReverseLimitValue.ClosedToGround;
         inputs.volts = motorVolts.getValue();
         inputs.leftAmps = leftMotorAmps.getValue();
@@ -167,6 +248,7 @@ public class ElevatorReal implements Elevator {
         inputs.isHomed = isHomed;
 
         Logger.processInputs("SuperStructure/Elevator", inputs);
+        motorCompensator.log("SuperStructure/Elevator/Extrapolation");
 
         isHomed = inputs.isHomed;
     }
@@ -5,30 +5,42 @@ import frc.robot.util.SimHelper.SimplePoseSim;;
 
 public class ElevatorSim implements Elevator {
 
-    private final Double maxVelo = (112.0 * kElevator.MOTOR_TO_MECHANISM_RATIO)
+    private final double maxVelo = (112.0 * kElevator.MOTOR_TO_MECHANISM_RATIO)
             * (kElevator.MECHANISM_DIAMETER_METERS * Math.PI);
     private final SimplePoseSim elevatorMeters = new SimplePoseSim(maxVelo);
 
-    public ElevatorSim(Double startingMeters) {
+    public ElevatorSim(double startingMeters) {
         elevatorMeters.instantSetPose(startingMeters);
     }
 
     @Override
-    public boolean setElevatorMeters(Double meters) {
+    public boolean setElevatorMeters(double meters) {
         elevatorMeters.setTargetPosition(meters);
         return Math.abs(elevatorMeters.getPose() - meters) < 0.1;
     }
 
     @Override
-    public Double getElevatorMeters() {
+    public double getElevatorMeters() {
         return elevatorMeters.getPose();
     }
 
     @Override
-    public void manualDriveMechanism(Double percentOut) {
+    public double getMechanismVelocity() {
+        return elevatorMeters.getVelocity();
+    }
+
+    @Override
+    public void manualDriveMechanism(double percentOut) {
         elevatorMeters.setTargetVelocity(percentOut * maxVelo);
     }
 
+    @Override
+    public void runMechanismVolts(double volts) {
+        // the pivot angle isn't known here so gravity isn't simulated
+        elevatorMeters.setInputVoltage(
+                volts, kElevator.MOTOR_kS, kElevator.MOTOR_kV, kElevator.MOTOR_kA);
+    }
+
     @Override
     public void stopMechanism() {
         elevatorMeters.setTargetPosition(elevatorMeters.getPose());
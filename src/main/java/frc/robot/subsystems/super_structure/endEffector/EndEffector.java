@@ -12,7 +12,11 @@ public interface EndEffector extends Component {
         public double volts = 0.0;
         public double temp = 0.0;
         public double currentLimit = 0.0;
+        public double rotorVelocity = 0.0;
         public boolean isInverted = false;
+        public boolean hasGamepiece = false;
+        /** When the device sampled the current, phoenix time in seconds */
+        public double motorTimestamp = 0.0;
 
         @Override
         public void toLog(LogTable table) {
@@ -21,6 +25,9 @@ public interface EndEffector extends Component {
             table.put("Temp", temp);
             table.put("CurrentLimit", currentLimit);
             table.put("IsInverted", isInverted);
+            table.put("RotorVelocity", rotorVelocity);
+            table.put("HasGamepiece", hasGamepiece);
+            table.put("MotorTimestamp", motorTimestamp);
         }
 
         @Override
@@ -30,31 +37,54 @@ public interface EndEffector extends Component {
             temp = table.get("Temp", temp);
             currentLimit = table.get("CurrentLimit", currentLimit);
             isInverted = table.get("IsInverted", isInverted);
+            rotorVelocity = table.get("RotorVelocity", rotorVelocity);
+            hasGamepiece = table.get("HasGamepiece", hasGamepiece);
+            motorTimestamp = table.get("MotorTimestamp", motorTimestamp);
         }
     }
 
     /**
-     * Runs the end-effector at a given percent output
+     * Runs the end-effector at a given voltage
      * 
      * @param volts of the end-effector motor
      */
-    public void runEndEffector(Double volts);
+    public void runEndEffector(double volts);
 
     /**
      * @return the voltage of the end-effector motor
      */
-    public Double getEndEffectorVoltage();
+    public double getEndEffectorVoltage();
 
     /**
      * @param amps true to enable current limits, false to disable
      */
-    public void setEndEffectorCurrentLimits(Double amps);
+    public void setEndEffectorCurrentLimits(double amps);
+
+    /**
+     * @return true if the end-effector has stalled on a gamepiece while intaking
+     */
+    public boolean hasGamepiece();
 
     @Override
-    default public void manualDriveMechanism(Double percentOut) {
+    default public void manualDriveMechanism(double percentOut) {
         this.runEndEffector(percentOut * 12.0);
     }
 
+    @Override
+    default public void runMechanismVolts(double volts) {
+        this.runEndEffector(volts);
+    }
+
+    @Override
+    default public double getMechanismPosition() {
+        return 0.0;
+    }
+
+    @Override
+    default public double getMechanismVelocity() {
+        return 0.0;
+    }
+
     @Override
     default public boolean homeMechanism(boolean force) {
         return true;
@@ -12,24 +12,36 @@ import com.ctre.phoenix6.signals.InvertedValue;
 
 import frc.robot.Constants.kSuperStructure;
 import frc.robot.Constants.kSuperStructure.kEndEffector;
+import frc.robot.util.BootConfigurator;
+import frc.robot.util.ConfigWorker;
+import frc.robot.util.LatencyTracer;
+import frc.robot.util.LatencyTracer.Path;
 import frc.robot.util.ShuffleboardApi.ShuffleEntryContainer;
+import frc.robot.util.SignalPlanner;
 
 public class EndEffectorReal implements EndEffector {
 
     private final TalonFX endEffectorMotor;
 
-    private final StatusSignal<Double> motorAmps, motorVolts, motorTemp;
+    private final StatusSignal<Double> motorAmps, motorVolts, motorTemp, motorVelo;
 
     private final EndEffectorInputs inputs;
 
+    private final GamepieceDetector gamepieceDetector = new GamepieceDetector();
+    private double commandedVolts = 0.0;
+
     public EndEffectorReal() {
         endEffectorMotor = new TalonFX(kEndEffector.MOTOR_ID, kSuperStructure.CANBUS);
-        endEffectorMotor.getConfigurator().apply(getEndEffectorMotorConfig());
+        BootConfigurator.talonFX("EndEffector", endEffectorMotor, getEndEffectorMotorConfig(), null);
 
         motorAmps = endEffectorMotor.getStatorCurrent();
         motorVolts = endEffectorMotor.getSupplyVoltage();
         motorTemp = endEffectorMotor.getDeviceTemp();
-        motorTemp.setUpdateFrequency(4);
+        motorVelo = endEffectorMotor.getRotorVelocity();
+        // gamepiece detection watches for the current spike and the rollers stalling
+        SignalPlanner.plan("EndEffector", endEffectorMotor, 100.0, motorAmps, motorVelo);
+        SignalPlanner.plan("EndEffector", endEffectorMotor, 10.0, motorVolts);
+        SignalPlanner.plan("EndEffector", endEffectorMotor, 4.0, motorTemp);
 
         inputs = new EndEffectorInputs();
     }
@@ -50,18 +62,20 @@ public class EndEffectorReal implements EndEffector {
     }
 
     @Override
-    public void runEndEffector(Double volts) {
+    public void runEndEffector(double volts) {
+        commandedVolts = volts;
         var voltageControlRequest = new VoltageOut(volts);
         this.endEffectorMotor.setControl(voltageControlRequest);
+        LatencyTracer.actuated(Path.SUPERSTRUCTURE);
     }
 
     @Override
-    public Double getEndEffectorVoltage() {
+    public double getEndEffectorVoltage() {
         return inputs.volts;
     }
 
     @Override
-    public void setEndEffectorCurrentLimits(Double limit) {
+    public void setEndEffectorCurrentLimits(double limit) {
         if (limit != inputs.currentLimit) {
             var cfg = new CurrentLimitsConfigs();
             cfg.SupplyCurrentLimitEnable = true;
@@ -70,21 +84,33 @@ public class EndEffectorReal implements EndEffector {
             cfg.SupplyTimeThreshold = 0.2;
             cfg.StatorCurrentLimit = limit;
             cfg.StatorCurrentLimitEnable = true;
-            endEffectorMotor.getConfigurator().apply(cfg);
+            // this changes on most transitions, it can't block the loop
+            ConfigWorker.submit("EndEffector/CurrentLimits", () -> endEffectorMotor.getConfigurator().apply(cfg));
             inputs.currentLimit = limit;
         }
     }
 
+    @Override
+    public boolean hasGamepiece() {
+        return inputs.hasGamepiece;
+    }
+
     @Override
     public void setupShuffleboard(ShuffleEntryContainer tab) {}
 
     @Override
-    public void periodic() {
-        BaseStatusSignal.refreshAll(motorAmps, motorVolts);
+    public void refreshSignals() {
+        BaseStatusSignal.refreshAll(motorAmps, motorVolts, motorVelo, motorTemp);
+    }
 
+    @Override
+    public void periodic() {
         inputs.amps = motorAmps.getValue();
+        inputs.motorTimestamp = motorAmps.getTimestamp().getTime();
         inputs.volts = motorVolts.getValue();
         inputs.temp = motorTemp.getValue();
+        inputs.rotorVelocity = motorVelo.getValue();
+        inputs.hasGamepiece = gamepieceDetector.update(commandedVolts, inputs.amps, inputs.rotorVelocity);
 
         Logger.processInputs("/SuperStructure/EndEffector", inputs);
     }
@@ -2,34 +2,79 @@ package frc.robot.subsystems.super_structure.endEffector;
 
 import org.littletonrobotics.junction.Logger;
 
+import edu.wpi.first.math.system.plant.DCMotor;
+import frc.robot.Constants.kSuperStructure.kEndEffector;
+
 public class EndEffectorSim implements EndEffector {
-    private Double eeVolts = 0.0, eeCurentLimit = 0.0;
+    /** How long the end-effector has to intake before a gamepiece is picked up */
+    private static final double INTAKE_SECONDS = 0.75;
+    private static final double FREE_ROTOR_VELOCITY = 100.0;
+    private static final double FREE_AMPS = 4.0;
+    private static final DCMotor MOTOR = DCMotor.getFalcon500(1);
+
+    private double eeVolts = 0.0, eeCurentLimit = 0.0;
 
     private final EndEffectorInputs inputs;
+    private final GamepieceDetector gamepieceDetector = new GamepieceDetector();
+
+    private double intakingSeconds = 0.0;
+    /** The direction the held piece was intaken in, 0.0 if nothing is held */
+    private double heldDirection = 0.0;
 
     public EndEffectorSim() {
         inputs = new EndEffectorInputs();
     }
 
     @Override
-    public Double getEndEffectorVoltage() {
+    public double getEndEffectorVoltage() {
         return eeVolts;
     }
 
     @Override
-    public void runEndEffector(Double volts) {
+    public void runEndEffector(double volts) {
         eeVolts = volts;
     }
 
     @Override
-    public void setEndEffectorCurrentLimits(Double amps) {
+    public void setEndEffectorCurrentLimits(double amps) {
         eeCurentLimit = amps;
     }
 
+    @Override
+    public boolean hasGamepiece() {
+        return inputs.hasGamepiece;
+    }
+
     @Override
     public void periodic() {
+        double direction = Math.signum(eeVolts);
+        boolean intaking = Math.abs(eeVolts) > kEndEffector.STALL_MIN_VOLTS;
+
+        if (heldDirection != 0.0 && intaking && direction != heldDirection) {
+            // spinning the other way spits the piece out
+            heldDirection = 0.0;
+            intakingSeconds = 0.0;
+        } else if (heldDirection == 0.0 && intaking) {
+            intakingSeconds += 0.02;
+            if (intakingSeconds >= INTAKE_SECONDS) {
+                heldDirection = direction;
+            }
+        } else if (!intaking) {
+            intakingSeconds = 0.0;
+        }
+
+        // a held piece jams the rollers, without one they spin freely
+        if (heldDirection != 0.0 && direction == heldDirection) {
+            inputs.rotorVelocity = 0.0;
+            inputs.amps = Math.min(Math.abs(eeVolts) / MOTOR.rOhms, eeCurentLimit);
+        } else {
+            inputs.rotorVelocity = FREE_ROTOR_VELOCITY * eeVolts / 12.0;
+            inputs.amps = eeVolts == 0.0 ? 0.0 : FREE_AMPS;
+        }
+
         inputs.currentLimit = eeCurentLimit;
         inputs.volts = eeVolts;
+        inputs.hasGamepiece = gamepieceDetector.update(eeVolts, inputs.amps, inputs.rotorVelocity);
 
         Logger.processInputs("SuperStructure/EndEffector", inputs);
     }
@@ -0,0 +1,27 @@
+package frc.robot.subsystems.super_structure.endEffector;
+
+import edu.wpi.first.math.filter.Debouncer;
+import edu.wpi.first.math.filter.Debouncer.DebounceType;
+import frc.robot.Constants.kSuperStructure.kEndEffector;
+
+/**
+ * Detects a gamepiece from the end-effector stalling while intaking,
+ * the debounce keeps the current spike from starting the motor from counting.
+ */
+public class GamepieceDetector {
+    private final Debouncer debouncer = new Debouncer(
+            kEndEffector.STALL_DEBOUNCE_SECONDS, DebounceType.kRising);
+
+    /**
+     * @param commandedVolts the voltage the motor was last asked for
+     * @param amps           the stator current of the motor
+     * @param rotorVelocity  the velocity of the motor in rotations per second
+     * @return true if the end-effector has been stalled on a gamepiece for long enough
+     */
+    public boolean update(double commandedVolts, double amps, double rotorVelocity) {
+        boolean stalled = Math.abs(commandedVolts) > kEndEffector.STALL_MIN_VOLTS
+                && Math.abs(amps) > kEndEffector.STALL_AMPS
+                && Math.abs(rotorVelocity) < kEndEffector.STALL_ROTOR_VELOCITY;
+        return debouncer.calculate(stalled);
+    }
+}
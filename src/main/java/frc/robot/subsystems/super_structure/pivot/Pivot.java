@@ -15,8 +15,10 @@ public interface Pivot extends Component {
         public double leftTemp = 0.0, rightTemp = 0.0;
         public double gyroPitchDegrees;
         public boolean isHomed = false;
+        /** When the devices sampled their positions, phoenix time in seconds */
+        public double motorTimestamp = 0.0, gyroTimestamp = 0.0;
 
-        public PivotInputs(Double startingDegrees) {
+        public PivotInputs(double startingDegrees) {
             degrees = startingDegrees;
             targetDegrees = startingDegrees;
             gyroPitchDegrees = startingDegrees;
@@ -33,6 +35,8 @@ public interface Pivot extends Component {
             table.put("RightTemp", rightTemp);
             table.put("TargetDegrees", targetDegrees);
             table.put("GyroPitchDegrees", gyroPitchDegrees);
+            table.put("MotorTimestamp", motorTimestamp);
+            table.put("GyroTimestamp", gyroTimestamp);
         }
 
         @Override
@@ -46,6 +50,8 @@ public interface Pivot extends Component {
             rightTemp = table.get("RightTemp", rightTemp);
             targetDegrees = table.get("TargetDegrees", targetDegrees);
             gyroPitchDegrees = table.get("GyroPitchDegrees", gyroPitchDegrees);
+            motorTimestamp = table.get("MotorTimestamp", motorTimestamp);
+            gyroTimestamp = table.get("GyroTimestamp", gyroTimestamp);
         }
     }
 
@@ -55,10 +61,15 @@ public interface Pivot extends Component {
      * 
      * @return true if degrees has been reached
      */
-    public boolean setPivotDegrees(Double degrees);
+    public boolean setPivotDegrees(double degrees);
 
     /**
      * @return the current angle of the mechanism
      */
-    public Double getPivotDegrees();
+    public double getPivotDegrees();
+
+    @Override
+    default public double getMechanismPosition() {
+        return this.getPivotDegrees();
+    }
 }
@@ -4,18 +4,30 @@ import org.littletonrobotics.junction.Logger;
 
 import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.configs.MotionMagicConfigs;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
 import com.ctre.phoenix6.controls.DutyCycleOut;
 import com.ctre.phoenix6.controls.Follower;
-import com.ctre.phoenix6.controls.MotionMagicDutyCycle;
+import com.ctre.phoenix6.controls.MotionMagicVoltage;
+import com.ctre.phoenix6.controls.VoltageOut;
 import com.ctre.phoenix6.hardware.Pigeon2;
 import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.InvertedValue;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 
+import frc.robot.GamepieceMode;
 import frc.robot.Constants.kSuperStructure;
 import frc.robot.Constants.kSuperStructure.kPivot;
+import frc.robot.subsystems.super_structure.LoadSchedule;
+import frc.robot.subsystems.super_structure.States.SuperStructurePosition;
+import frc.robot.util.BootConfigurator;
+import frc.robot.util.ConfigWorker;
+import frc.robot.util.ConfigWorker.Ticket;
+import frc.robot.util.LatencyCompensator;
+import frc.robot.util.LatencyTracer;
+import frc.robot.util.LatencyTracer.Path;
 import frc.robot.util.ShuffleboardApi.ShuffleEntryContainer;
+import frc.robot.util.SignalPlanner;
 
 public class PivotReal implements Pivot {
 
@@ -29,16 +41,26 @@ public class PivotReal implements Pivot {
     private final StatusSignal<Double> motorRots, motorVelo, motorVolts;
     private final StatusSignal<Double> leftMotorAmps, rightMotorAmps, leftMotorTemp, rightMotorTemp;
     private final StatusSignal<Double> gyroPitch;
+    private final LatencyCompensator motorCompensator = new LatencyCompensator();
+    /** The pigeon's own pitch rate is in a different frame, the mechanism velocity is used instead */
+    private final LatencyCompensator gyroCompensator = new LatencyCompensator();
 
     private final PivotInputs inputs;
 
     private boolean isHomed = false;
-
-    private Double mechDegreesToMotorRots(Double mechanismDegrees) {
+    /** The encoder re-seed of the current homing, null if there is none in flight */
+    private Ticket homeTicket = null;
+    private double gravityVolts = 0.0;
+    /** The motors are configured for the worst case until told otherwise */
+    private int loadBucket = LoadSchedule.HEAVIEST_BUCKET;
+    private int slot = LoadSchedule.slot(LoadSchedule.HEAVIEST_BUCKET);
+    private final LoadSchedule.Tracker loadTracker;
+
+    private double mechDegreesToMotorRots(double mechanismDegrees) {
         return (mechanismDegrees / 360.0) / kPivot.MOTOR_TO_MECHANISM_RATIO;
     }
 
-    private Double motorRotsToMechDegrees(Double motorRots) {
+    private double motorRotsToMechDegrees(double motorRots) {
         return motorRots * 360.0 * kPivot.MOTOR_TO_MECHANISM_RATIO;
     }
 
@@ -48,14 +70,14 @@ public class PivotReal implements Pivot {
 
         leaderMotor = new TalonFX(kPivot.LEFT_MOTOR_ID, kSuperStructure.CANBUS);
         followerMotor = new TalonFX(kPivot.RIGHT_MOTOR_ID, kSuperStructure.CANBUS);
-        leaderMotor.getConfigurator().apply(getMotorConfig());
-        followerMotor.getConfigurator().apply(getMotorConfig());
-
         followerMotor.setControl(
                 new Follower(kPivot.LEFT_MOTOR_ID, true));
 
         inputs = new PivotInputs(gyroPitch.getValue() - kPivot.PIGEON_OFFSET);
-        leaderMotor.setPosition(mechDegreesToMotorRots(getPivotDegreesPigeon()));
+        final double startingRots = mechDegreesToMotorRots(getPivotDegreesPigeon());
+        BootConfigurator.talonFX("Pivot/Leader", leaderMotor, getMotorConfig(),
+                () -> leaderMotor.setPosition(startingRots));
+        BootConfigurator.talonFX("Pivot/Follower", followerMotor, getMotorConfig(), null);
 
         motorRots = leaderMotor.getRotorPosition();
         motorVelo = leaderMotor.getRotorVelocity();
@@ -65,19 +87,44 @@ public class PivotReal implements Pivot {
 
         rightMotorTemp = leaderMotor.getDeviceTemp();
         leftMotorTemp = followerMotor.getDeviceTemp();
-        rightMotorTemp.setUpdateFrequency(4);
-        leftMotorTemp.setUpdateFrequency(4);
+
+        SignalPlanner.plan("Pivot/Leader", leaderMotor, 100.0, motorRots, motorVelo);
+        // the follower mirrors the leader's output from this
+        SignalPlanner.plan("Pivot/Leader", leaderMotor, 100.0, leaderMotor.getDutyCycle());
+        SignalPlanner.plan("Pivot/Leader", leaderMotor, 50.0, rightMotorAmps);
+        SignalPlanner.plan("Pivot/Leader", leaderMotor, 10.0, motorVolts);
+        SignalPlanner.plan("Pivot/Leader", leaderMotor, 4.0, rightMotorTemp);
+        SignalPlanner.plan("Pivot/Follower", followerMotor, 50.0, leftMotorAmps);
+        SignalPlanner.plan("Pivot/Follower", followerMotor, 4.0, leftMotorTemp);
+        SignalPlanner.plan("Pivot/Pigeon", gyro, 100.0, gyroPitch);
+
+        // the rio bus can't do dynamic motion magic so the constraints are re-sent
+        loadTracker = new LoadSchedule.Tracker("Pivot/MotionMagic", bucket -> {
+            var motionMagicCfg = getMotionMagicConfig(bucket);
+            return () -> leaderMotor.getConfigurator().apply(motionMagicCfg);
+        });
     }
 
     private TalonFXConfiguration getMotorConfig() {
         TalonFXConfiguration motorCfg = new TalonFXConfiguration();
-        motorCfg.Slot0.kP = kPivot.MOTOR_kP;
-        motorCfg.Slot0.kI = kPivot.MOTOR_kI;
-        motorCfg.Slot0.kD = kPivot.MOTOR_kD;
-
-        motorCfg.MotionMagic.MotionMagicCruiseVelocity = kPivot.MAX_VELOCITY;
-        motorCfg.MotionMagic.MotionMagicAcceleration = kPivot.MAX_ACCELERATION;
-        motorCfg.MotionMagic.MotionMagicJerk = kPivot.MAX_JERK;
+        // pid gains were tuned against duty cycle, the requests are now in volts
+        motorCfg.Slot0.kP = kPivot.MOTOR_kP * 12.0;
+        motorCfg.Slot0.kI = kPivot.MOTOR_kI * 12.0;
+        motorCfg.Slot0.kD = kPivot.MOTOR_kD * 12.0;
+        // feedforwards are per mechanism degree, the talon wants per rotor rotation
+        double degreesPerRotorRot = 360.0 * kPivot.MOTOR_TO_MECHANISM_RATIO;
+        motorCfg.Slot0.kS = kPivot.MOTOR_kS;
+        motorCfg.Slot0.kV = kPivot.MOTOR_kV * degreesPerRotorRot;
+        motorCfg.Slot0.kA = kPivot.MOTOR_kA * degreesPerRotorRot;
+        // slot 1 is the same but tuned for a heavily loaded arm
+        motorCfg.Slot1.kP = kPivot.MOTOR_kP_HEAVY * 12.0;
+        motorCfg.Slot1.kI = kPivot.MOTOR_kI * 12.0;
+        motorCfg.Slot1.kD = kPivot.MOTOR_kD * 12.0;
+        motorCfg.Slot1.kS = kPivot.MOTOR_kS;
+        motorCfg.Slot1.kV = kPivot.MOTOR_kV * degreesPerRotorRot;
+        motorCfg.Slot1.kA = kPivot.MOTOR_kA_HEAVY * degreesPerRotorRot;
+
+        motorCfg.MotionMagic = getMotionMagicConfig(LoadSchedule.HEAVIEST_BUCKET);
 
         motorCfg.MotorOutput.NeutralMode = NeutralModeValue.Brake;
         motorCfg.MotorOutput.Inverted = kPivot.INVERTED ? InvertedValue.Clockwise_Positive
@@ -89,19 +136,43 @@ public class PivotReal implements Pivot {
         return motorCfg;
     }
 
+    private MotionMagicConfigs getMotionMagicConfig(int bucket) {
+        var motionMagicCfg = new MotionMagicConfigs();
+        motionMagicCfg.MotionMagicCruiseVelocity = LoadSchedule.interpolate(
+                kPivot.MAX_VELOCITY_LIGHT, kPivot.MAX_VELOCITY, bucket);
+        motionMagicCfg.MotionMagicAcceleration = LoadSchedule.interpolate(
+                kPivot.MAX_ACCELERATION_LIGHT, kPivot.MAX_ACCELERATION, bucket);
+        motionMagicCfg.MotionMagicJerk = LoadSchedule.interpolate(
+                kPivot.MAX_JERK_LIGHT, kPivot.MAX_JERK, bucket);
+        return motionMagicCfg;
+    }
+
     @Override
-    public boolean setPivotDegrees(Double degrees) {
+    public boolean setPivotDegrees(double degrees) {
         isHomed = false;
-        var posControlRequest = new MotionMagicDutyCycle(mechDegreesToMotorRots(degrees));
+        homeTicket = null;
+        var posControlRequest = new MotionMagicVoltage(mechDegreesToMotorRots(degrees))
+                .withFeedForward(gravityVolts)
+                .withSlot(slot);
         this.leaderMotor.setControl(posControlRequest);
+        LatencyTracer.actuated(Path.SUPERSTRUCTURE);
         return Math.abs(degrees - getPivotDegrees()) < kPivot.TOLERANCE;
     }
 
     @Override
-    public void manualDriveMechanism(Double percentOut) {
+    public void manualDriveMechanism(double percentOut) {
         isHomed = false;
+        homeTicket = null;
         var percentControlRequest = new DutyCycleOut(percentOut);
         this.leaderMotor.setControl(percentControlRequest);
+        LatencyTracer.actuated(Path.SUPERSTRUCTURE);
+    }
+
+    @Override
+    public void runMechanismVolts(double volts) {
+        isHomed = false;
+        homeTicket = null;
+        this.leaderMotor.setControl(new VoltageOut(volts));
     }
 
     @Override
@@ -110,48 +181,86 @@ public class PivotReal implements Pivot {
     }
 
     @Override
-    public Double getPivotDegrees() {
+    public double getPivotDegrees() {
         return inputs.degrees;
     }
 
-    private Double getPivotDegreesPigeon() {
+    @Override
+    public double getMechanismVelocity() {
+        return inputs.degreesPerSec;
+    }
+
+    @Override
+    public void updateStructureState(SuperStructurePosition pose, double loadElevatorMeters) {
+        int bucket = LoadSchedule.bucket(
+                LoadSchedule.loadFactor(loadElevatorMeters, GamepieceMode.getHeldPiece()));
+        loadBucket = loadTracker.update(bucket);
+        slot = LoadSchedule.slot(loadBucket);
+
+        double kG = LoadSchedule.interpolate(kPivot.MOTOR_kG, kPivot.MOTOR_kG_HEAVY, loadBucket);
+        gravityVolts = kG * Math.cos(Math.toRadians(pose.pivotDegrees));
+        Logger.recordOutput("SuperStructure/Pivot/GravityVolts", gravityVolts);
+        Logger.recordOutput("SuperStructure/Pivot/LoadBucket", loadBucket);
+        Logger.recordOutput("SuperStructure/Pivot/LoadBucketKnown", loadTracker.isActiveKnown());
+    }
+
+    private double getPivotDegreesPigeon() {
         return inputs.gyroPitchDegrees - kPivot.PIGEON_OFFSET;
     }
 
-    private void seedPivot() {
+    private Ticket seedPivot() {
         var pigeonDegrees = mechDegreesToMotorRots(getPivotDegreesPigeon());
-        leaderMotor.setPosition(pigeonDegrees);
+        return ConfigWorker.submit("Pivot/Position", () -> leaderMotor.setPosition(pigeonDegrees));
     }
 
     @Override
     public boolean homeMechanism(boolean force) {
         if (force) {
             isHomed = false;
+            homeTicket = null;
         }
         if (isHomed) {
             this.stopMechanism();
             return true;
         }
+        if (homeTicket != null) {
+            return awaitHomeTicket();
+        }
 
         var reached = this.setPivotDegrees(kPivot.HOME_DEGREES);
-        if (reached) {
-            this.stopMechanism();
-            seedPivot();
-            isHomed = true;
-            return isHomed;
-        }
         if (
-            inputs.leftAmps > kPivot.CURRENT_PEAK_FOR_HOME
+            reached
+            || inputs.leftAmps > kPivot.CURRENT_PEAK_FOR_HOME
             || inputs.rightAmps > kPivot.CURRENT_PEAK_FOR_HOME
         ) {
             this.stopMechanism();
-            seedPivot();
-            isHomed = true;
+            homeTicket = seedPivot();
         }
 
         return isHomed;
     }
 
+    /**
+     * Holds the output at zero until the re-seed reached the motor,
+     * a position request before that would be against the old zero
+     */
+    private boolean awaitHomeTicket() {
+        this.stopMechanism();
+        switch (homeTicket.getState()) {
+            case SUCCEEDED:
+                isHomed = true;
+                homeTicket = null;
+                break;
+            case PENDING:
+                break;
+            default:
+                // the re-seed never landed, home again
+                homeTicket = null;
+                break;
+        }
+        return isHomed;
+    }
+
     @Override
     public void setupShuffleboard(ShuffleEntryContainer tab) {
         // tab.addDouble("Pivot Motor Rots", motorRots::getValue);
@@ -163,17 +272,23 @@ public class PivotReal implements Pivot {
     }
 
     @Override
-    public void periodic() {
+    public void refreshSignals() {
         BaseStatusSignal.refreshAll(
             motorRots, motorVelo,
             motorVolts, gyroPitch,
             leftMotorAmps, rightMotorAmps,
             leftMotorTemp, rightMotorTemp
         );
+    }
 
-        inputs.degrees = motorRotsToMechDegrees(motorRots.getValue());
+    @Override
+    public void periodic() {
+        // both brought to now so the motor and pigeon estimates can be compared
+        inputs.degrees = motorRotsToMechDegrees(motorCompensator.update(motorRots, motorVelo));
         inputs.degreesPerSec = motorRotsToMechDegrees(motorVelo.getValue());
-        inputs.gyroPitchDegrees = gyroPitch.getValue();
+        inputs.gyroPitchDegrees = gyroCompensator.update(gyroPitch, inputs.degreesPerSec);
+        inputs.motorTimestamp = motorRots.getTimestamp().getTime();
+        inputs.gyroTimestamp = gyroPitch.getTimestamp().getTime();
         inputs.volts = motorVolts.getValue();
         inputs.leftAmps = leftMotorAmps.getValue();
         inputs.rightAmps = rightMotorAmps.getValue();
@@ -182,6 +297,8 @@ public class PivotReal implements Pivot {
         inputs.isHomed = isHomed;
 
         Logger.processInputs("SuperStructure/Pivot", inputs);
+        motorCompensator.log("SuperStructure/Pivot/MotorExtrapolation");
+        gyroCompensator.log("SuperStructure/Pivot/GyroExtrapolation");
 
         isHomed = inputs.isHomed;
     }
@@ -6,34 +6,46 @@ import frc.robot.Constants.kSuperStructure.*;
 
 public class PivotSim implements Pivot {
 
-    private final Double maxVelo = 112.0 * 360.0 * kPivot.MOTOR_TO_MECHANISM_RATIO;
+    private final double maxVelo = 112.0 * 360.0 * kPivot.MOTOR_TO_MECHANISM_RATIO;
     private final SimplePoseSim pivotDegrees = new SimplePoseSim(maxVelo);
 
-    public PivotSim(Double startingDegrees) {
+    public PivotSim(double startingDegrees) {
         pivotDegrees.instantSetPose(startingDegrees);
     }
 
     @Override
-    public boolean setPivotDegrees(Double degrees) {
+    public boolean setPivotDegrees(double degrees) {
         pivotDegrees.setTargetPosition(degrees);
         return Math.abs(pivotDegrees.getPose() - degrees) < 0.1;
     }
 
     @Override
-    public void manualDriveMechanism(Double percentOut) {
+    public void manualDriveMechanism(double percentOut) {
         pivotDegrees.setTargetVelocity(percentOut * maxVelo);
     }
 
+    @Override
+    public void runMechanismVolts(double volts) {
+        double gravityVolts = kPivot.MOTOR_kG * Math.cos(Math.toRadians(pivotDegrees.getPose()));
+        pivotDegrees.setInputVoltage(
+                volts - gravityVolts, kPivot.MOTOR_kS, kPivot.MOTOR_kV, kPivot.MOTOR_kA);
+    }
+
     @Override
     public void stopMechanism() {
         pivotDegrees.setTargetPosition(pivotDegrees.getPose());
     }
 
     @Override
-    public Double getPivotDegrees() {
+    public double getPivotDegrees() {
         return pivotDegrees.getPose();
     }
 
+    @Override
+    public double getMechanismVelocity() {
+        return pivotDegrees.getVelocity();
+    }
+
     @Override
     public boolean homeMechanism(boolean force) {
         pivotDegrees.setTargetPosition(kPivot.HOME_DEGREES);
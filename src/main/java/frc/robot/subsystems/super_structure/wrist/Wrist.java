@@ -14,8 +14,10 @@ public interface Wrist extends Component {
         public double volts = 0.0;
         public double temp = 0.0;
         public boolean isHomed = false;
+        /** When the device sampled the position, phoenix time in seconds */
+        public double motorTimestamp = 0.0;
 
-        public WristInputs(Double startingDegrees) {
+        public WristInputs(double startingDegrees) {
             degrees = startingDegrees;
             targetDegrees = startingDegrees;
         }
@@ -29,6 +31,7 @@ public interface Wrist extends Component {
             table.put("WristTemp", temp);
             table.put("WristTargetDegrees", targetDegrees);
             table.put("WristIsHomed", isHomed);
+            table.put("WristMotorTimestamp", motorTimestamp);
         }
 
         @Override
@@ -40,6 +43,7 @@ public interface Wrist extends Component {
             temp = table.get("WristTemp", temp);
             targetDegrees = table.get("WristTargetDegrees", targetDegrees);
             isHomed = table.get("WristIsHomed", isHomed);
+            motorTimestamp = table.get("WristMotorTimestamp", motorTimestamp);
         }
     }
 
@@ -49,10 +53,15 @@ public interface Wrist extends Component {
      * 
      * @return true if degrees has been reached
      */
-    public boolean setWristDegrees(Double degrees);
+    public boolean setWristDegrees(double degrees);
 
     /**
      * @return the current angle of the mechanism
      */
-    public Double getWristDegrees();
+    public double getWristDegrees();
+
+    @Override
+    default public double getMechanismPosition() {
+        return this.getWristDegrees();
+    }
 }
@@ -4,29 +4,50 @@ import org.littletonrobotics.junction.Logger;
 
 import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.configs.MotionMagicConfigs;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
 import com.ctre.phoenix6.controls.DutyCycleOut;
-import com.ctre.phoenix6.controls.MotionMagicDutyCycle;
+import com.ctre.phoenix6.controls.MotionMagicVoltage;
+import com.ctre.phoenix6.controls.VoltageOut;
 import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.InvertedValue;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 
+import frc.robot.GamepieceMode;
 import frc.robot.Constants.kSuperStructure;
 import frc.robot.Constants.kSuperStructure.kWrist;
+import frc.robot.util.BootConfigurator;
+import frc.robot.util.ConfigWorker;
+import frc.robot.util.ConfigWorker.Ticket;
+import frc.robot.util.LatencyCompensator;
+import frc.robot.util.SignalPlanner;
+import frc.robot.util.LatencyTracer;
+import frc.robot.util.LatencyTracer.Path;
+import frc.robot.subsystems.super_structure.LoadSchedule;
+import frc.robot.subsystems.super_structure.States.SuperStructurePosition;
 
 public class WristReal implements Wrist {
 
     private final TalonFX motor;
 
     private final StatusSignal<Double> motorRots, motorVelo, motorAmps, motorVolts, motorTemp;
+    private final LatencyCompensator motorCompensator = new LatencyCompensator();
 
     private final WristInputs inputs;
     private boolean isHomed = false;
-    private Double setPointDegrees = kWrist.HOME_DEGREES;
+    /** The encoder re-zero of the current homing, null if there is none in flight */
+    private Ticket homeTicket = null;
+    private double setPointDegrees = kWrist.HOME_DEGREES;
+    private double gravityVolts = 0.0;
+    /** The motor is configured for the worst case until told otherwise */
+    private int loadBucket = LoadSchedule.HEAVIEST_BUCKET;
+    private int slot = LoadSchedule.slot(LoadSchedule.HEAVIEST_BUCKET);
+    private final LoadSchedule.Tracker loadTracker;
 
-    public WristReal(Double startingDegrees) {
+    public WristReal(double startingDegrees) {
         motor = new TalonFX(kWrist.MOTOR_ID, kSuperStructure.CANBUS);
-        motor.getConfigurator().apply(getWristMotorConfig());
+        BootConfigurator.talonFX("Wrist", motor, getWristMotorConfig(),
+                () -> motor.setPosition(mechDegreesToMotorRots(startingDegrees)));
 
         motorRots = motor.getRotorPosition();
         motorVelo = motor.getRotorVelocity();
@@ -34,17 +55,25 @@ public class WristReal implements Wrist {
         motorVolts = motor.getSupplyVoltage();
         motorTemp = motor.getDeviceTemp();
 
-        motorTemp.setUpdateFrequency(4);
+        SignalPlanner.plan("Wrist", motor, 100.0, motorRots, motorVelo);
+        SignalPlanner.plan("Wrist", motor, 50.0, motorAmps);
+        SignalPlanner.plan("Wrist", motor, 10.0, motorVolts);
+        SignalPlanner.plan("Wrist", motor, 4.0, motorTemp);
+
+        // the rio bus can't do dynamic motion magic so the constraints are re-sent
+        loadTracker = new LoadSchedule.Tracker("Wrist/MotionMagic", bucket -> {
+            var motionMagicCfg = getMotionMagicConfig(bucket);
+            return () -> motor.getConfigurator().apply(motionMagicCfg);
+        });
 
-        motor.setPosition(mechDegreesToMotorRots(startingDegrees));
         inputs = new WristInputs(startingDegrees);
     }
 
-    private Double mechDegreesToMotorRots(Double mechanismDegrees) {
+    private double mechDegreesToMotorRots(double mechanismDegrees) {
         return (mechanismDegrees / 360.0) / kWrist.MOTOR_TO_MECHANISM_RATIO;
     }
 
-    private Double motorRotsToMechDegrees(Double motorRots) {
+    private double motorRotsToMechDegrees(double motorRots) {
         return motorRots * 360.0 * kWrist.MOTOR_TO_MECHANISM_RATIO;
     }
 
@@ -56,15 +85,24 @@ public class WristReal implements Wrist {
      */
     private TalonFXConfiguration getWristMotorConfig() {
         TalonFXConfiguration wristMotorCfg = new TalonFXConfiguration();
-        wristMotorCfg.Slot0.kP = kWrist.MOTOR_kP;
-        wristMotorCfg.Slot0.kI = kWrist.MOTOR_kI;
-        wristMotorCfg.Slot0.kD = kWrist.MOTOR_kD;
-        // wristMotorCfg.Slot0.kS = kWrist.MOTOR_kS;
-        // wristMotorCfg.Slot0.kV = kWrist.MOTOR_kV;
+        // pid gains were tuned against duty cycle, the requests are now in volts
+        wristMotorCfg.Slot0.kP = kWrist.MOTOR_kP * 12.0;
+        wristMotorCfg.Slot0.kI = kWrist.MOTOR_kI * 12.0;
+        wristMotorCfg.Slot0.kD = kWrist.MOTOR_kD * 12.0;
+        // feedforwards are per mechanism degree, the talon wants per rotor rotation
+        double degreesPerRotorRot = 360.0 * kWrist.MOTOR_TO_MECHANISM_RATIO;
+        wristMotorCfg.Slot0.kS = kWrist.MOTOR_kS;
+        wristMotorCfg.Slot0.kV = kWrist.MOTOR_kV * degreesPerRotorRot;
+        wristMotorCfg.Slot0.kA = kWrist.MOTOR_kA * degreesPerRotorRot;
+        // slot 1 is the same but tuned for a heavily loaded arm
+        wristMotorCfg.Slot1.kP = kWrist.MOTOR_kP_HEAVY * 12.0;
+        wristMotorCfg.Slot1.kI = kWrist.MOTOR_kI * 12.0;
+        wristMotorCfg.Slot1.kD = kWrist.MOTOR_kD * 12.0;
+        wristMotorCfg.Slot1.kS = kWrist.MOTOR_kS;
+        wristMotorCfg.Slot1.kV = kWrist.MOTOR_kV * degreesPerRotorRot;
+        wristMotorCfg.Slot1.kA = kWrist.MOTOR_kA_HEAVY * degreesPerRotorRot;
 
-        wristMotorCfg.MotionMagic.MotionMagicCruiseVelocity = kWrist.MAX_VELOCITY;
-        wristMotorCfg.MotionMagic.MotionMagicAcceleration = kWrist.MAX_ACCELERATION;
-        wristMotorCfg.MotionMagic.MotionMagicJerk = kWrist.MAX_JERK;
+        wristMotorCfg.MotionMagic = getMotionMagicConfig(LoadSchedule.HEAVIEST_BUCKET);
 
         wristMotorCfg.MotorOutput.NeutralMode = NeutralModeValue.Brake;
         wristMotorCfg.MotorOutput.Inverted = kWrist.INVERTED ? InvertedValue.Clockwise_Positive
@@ -75,20 +113,44 @@ public class WristReal implements Wrist {
         return wristMotorCfg;
     }
 
+    private MotionMagicConfigs getMotionMagicConfig(int bucket) {
+        var motionMagicCfg = new MotionMagicConfigs();
+        motionMagicCfg.MotionMagicCruiseVelocity = LoadSchedule.interpolate(
+                kWrist.MAX_VELOCITY_LIGHT, kWrist.MAX_VELOCITY, bucket);
+        motionMagicCfg.MotionMagicAcceleration = LoadSchedule.interpolate(
+                kWrist.MAX_ACCELERATION_LIGHT, kWrist.MAX_ACCELERATION, bucket);
+        motionMagicCfg.MotionMagicJerk = LoadSchedule.interpolate(
+                kWrist.MAX_JERK_LIGHT, kWrist.MAX_JERK, bucket);
+        return motionMagicCfg;
+    }
+
     @Override
-    public boolean setWristDegrees(Double degrees) {
+    public boolean setWristDegrees(double degrees) {
         isHomed = false;
+        homeTicket = null;
         setPointDegrees = degrees;
-        var posControlRequest = new MotionMagicDutyCycle(mechDegreesToMotorRots(degrees));
+        var posControlRequest = new MotionMagicVoltage(mechDegreesToMotorRots(degrees))
+                .withFeedForward(gravityVolts)
+                .withSlot(slot);
         this.motor.setControl(posControlRequest);
+        LatencyTracer.actuated(Path.SUPERSTRUCTURE);
         return Math.abs(degrees - getWristDegrees()) < kWrist.TOLERANCE;
     }
 
     @Override
-    public void manualDriveMechanism(Double percentOut) {
+    public void manualDriveMechanism(double percentOut) {
         isHomed = false;
+        homeTicket = null;
         var percentControlRequest = new DutyCycleOut(percentOut);
         this.motor.setControl(percentControlRequest);
+        LatencyTracer.actuated(Path.SUPERSTRUCTURE);
+    }
+
+    @Override
+    public void runMechanismVolts(double volts) {
+        isHomed = false;
+        homeTicket = null;
+        this.motor.setControl(new VoltageOut(volts));
     }
 
     @Override
@@ -97,18 +159,42 @@ public class WristReal implements Wrist {
     }
 
     @Override
-    public Double getWristDegrees() {
+    public double getWristDegrees() {
         return inputs.degrees;
     }
 
+    @Override
+    public double getMechanismVelocity() {
+        return inputs.degreesPerSec;
+    }
+
+    @Override
+    public void updateStructureState(SuperStructurePosition pose, double loadElevatorMeters) {
+        int bucket = LoadSchedule.bucket(
+                LoadSchedule.loadFactor(loadElevatorMeters, GamepieceMode.getHeldPiece()));
+        loadBucket = loadTracker.update(bucket);
+        slot = LoadSchedule.slot(loadBucket);
+
+        // the wrist is relative to the elevator, gravity acts on its angle from the floor
+        double kG = LoadSchedule.interpolate(kWrist.MOTOR_kG, kWrist.MOTOR_kG_HEAVY, loadBucket);
+        gravityVolts = kG * Math.cos(Math.toRadians(pose.pivotDegrees + pose.wristDegrees));
+        Logger.recordOutput("SuperStructure/Wrist/GravityVolts", gravityVolts);
+        Logger.recordOutput("SuperStructure/Wrist/LoadBucket", loadBucket);
+        Logger.recordOutput("SuperStructure/Wrist/LoadBucketKnown", loadTracker.isActiveKnown());
+    }
+
     @Override
     public boolean homeMechanism(boolean force) {
         if (force) {
             isHomed = false;
+            homeTicket = null;
         }
         if (isHomed) {
             return true;
         }
+        if (homeTicket != null) {
+            return awaitHomeTicket();
+        }
 
         if (getWristDegrees() < kWrist.HOME_DEGREES - 10.0) {
             setWristDegrees(kWrist.HOME_DEGREES);
@@ -117,22 +203,47 @@ public class WristReal implements Wrist {
         }
         if (inputs.amps > kWrist.CURRENT_PEAK_FOR_ZERO) {
             this.stopMechanism();
-            this.motor.setPosition(mechDegreesToMotorRots(kWrist.HOME_DEGREES + kWrist.HARD_OFFSET));
-            isHomed = true;
+            var homeRots = mechDegreesToMotorRots(kWrist.HOME_DEGREES + kWrist.HARD_OFFSET);
+            homeTicket = ConfigWorker.submit("Wrist/Position", () -> this.motor.setPosition(homeRots));
         }
 
         return isHomed;
     }
 
+    /**
+     * Holds the output at zero until the re-zero reached the motor,
+     * a position request before that would be against the old zero
+     */
+    private boolean awaitHomeTicket() {
+        this.stopMechanism();
+        switch (homeTicket.getState()) {
+            case SUCCEEDED:
+                isHomed = true;
+                homeTicket = null;
+                break;
+            case PENDING:
+                break;
+            default:
+                // the re-zero never landed, home again
+                homeTicket = null;
+                break;
+        }
+        return isHomed;
+    }
+
     @Override
-    public void periodic() {
+    public void refreshSignals() {
         BaseStatusSignal.refreshAll(
             motorAmps, motorVolts,
             motorRots, motorVelo,
             motorTemp
         );
+    }
 
-        inputs.degrees = motorRotsToMechDegrees(motorRots.getValue());
+    @Override
+    public void periodic() {
+        inputs.degrees = motorRotsToMechDegrees(motorCompensator.update(motorRots, motorVelo));
+        inputs.motorTimestamp = motorRots.getTimestamp().getTime();
         inputs.degreesPerSec = motorRotsToMechDegrees(motorVelo.getValue());
         inputs.amps = motorAmps.getValue();
         inputs.volts = motorVolts.getValue();
@@ -141,6 +252,7 @@ public class WristReal implements Wrist {
         inputs.targetDegrees = setPointDegrees;
 
         Logger.processInputs("SuperStructure/Wrist", inputs);
+        motorCompensator.log("SuperStructure/Wrist/Extrapolation");
 
         isHomed = inputs.isHomed;
     }
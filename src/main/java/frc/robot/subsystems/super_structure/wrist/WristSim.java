@@ -15,12 +15,12 @@ public class WristSim implements Wrist {
     private final PIDController pidController = new PIDController(
         kWrist.MOTOR_kP, kWrist.MOTOR_kI, kWrist.MOTOR_kD, 0.2
     );
-    private Double setDegrees = kWrist.HOME_DEGREES, AppliedVolts = 0.0;
+    private double setDegrees = kWrist.HOME_DEGREES, AppliedVolts = 0.0;
     private boolean isHomed = false;
 
     private final WristInputs inputs;
 
-    public WristSim(Double startingDegrees) {
+    public WristSim(double startingDegrees) {
         sim = new SingleJointedArmSim(
             DCMotor.getFalcon500(1),
             1.0 / kWrist.MOTOR_TO_MECHANISM_RATIO,
@@ -36,10 +36,10 @@ public class WristSim implements Wrist {
     }
 
     @Override
-    public boolean setWristDegrees(Double degrees) {
+    public boolean setWristDegrees(double degrees) {
         isHomed = false;
         setDegrees = degrees;
-        Double wristVoltageFeedback = pidController.calculate(
+        double wristVoltageFeedback = pidController.calculate(
             sim.getAngleRads(), Units.degreesToRadians(degrees));
         sim.setInputVoltage(wristVoltageFeedback);
         AppliedVolts = wristVoltageFeedback;
@@ -47,21 +47,33 @@ public class WristSim implements Wrist {
     }
 
     @Override
-    public void manualDriveMechanism(Double percentOut) {
+    public void manualDriveMechanism(double percentOut) {
         isHomed = false;
         sim.setInputVoltage(12.0*percentOut);
     }
 
+    @Override
+    public void runMechanismVolts(double volts) {
+        isHomed = false;
+        sim.setInputVoltage(volts);
+        AppliedVolts = volts;
+    }
+
     @Override
     public void stopMechanism() {
         sim.setInputVoltage(0.0);
     }
 
     @Override
-    public Double getWristDegrees() {
+    public double getWristDegrees() {
         return inputs.degrees;
     }
 
+    @Override
+    public double getMechanismVelocity() {
+        return inputs.degreesPerSec;
+    }
+
     @Override
     public boolean homeMechanism(boolean force) {
         isHomed = true;
@@ -0,0 +1,102 @@
+package frc.robot.subsystems.swerve;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Drives the chassis heading to an absolute angle along a trapezoidal profile,
+ * the profile's velocity is fed forward so the PID only has to correct error.
+ * <p>
+ * The input is continuous so the robot always takes the short way around.
+ */
+public class HeadingController {
+    /** If calculate hasn't been called for this long the controller is reset */
+    private static final double STALE_SECS = 0.1;
+
+    private final ProfiledPIDController controller;
+    private final double maxVelocity;
+
+    private double goalRads = 0.0;
+    private double goalSetTime = 0.0;
+    private double lastCalculateTime = Double.NEGATIVE_INFINITY;
+    private boolean settled = true;
+
+    /**
+     * @param kP            radians per second per radian of error
+     * @param kI            integral gain
+     * @param kD            derivative gain
+     * @param maxVelocity   max angular velocity in radians per second
+     * @param maxAccel      max angular acceleration in radians per second squared
+     * @param toleranceRads how close the heading has to be to the goal to be settled
+     */
+    public HeadingController(
+            double kP, double kI, double kD,
+            double maxVelocity, double maxAccel,
+            double toleranceRads) {
+        this.maxVelocity = maxVelocity;
+        controller = new ProfiledPIDController(
+                kP, kI, kD,
+                new TrapezoidProfile.Constraints(maxVelocity, maxAccel),
+                0.02);
+        controller.enableContinuousInput(-Math.PI, Math.PI);
+        controller.setTolerance(toleranceRads);
+    }
+
+    /**
+     * Restarts the profile from the current heading
+     *
+     * @param measuredRads the current heading
+     * @param measuredVelo the current angular velocity in radians per second
+     */
+    public void reset(double measuredRads, double measuredVelo) {
+        controller.reset(measuredRads, measuredVelo);
+        goalRads = MathUtil.angleModulus(measuredRads);
+        settled = true;
+    }
+
+    /**
+     * @param measuredRads the current heading
+     * @param goalRads     the wanted heading
+     * @return the angular velocity to command in radians per second
+     */
+    public double calculate(double measuredRads, double goalRads) {
+        double now = Timer.getFPGATimestamp();
+        if (now - lastCalculateTime > STALE_SECS) {
+            reset(measuredRads, 0.0);
+        }
+        lastCalculateTime = now;
+
+        goalRads = MathUtil.angleModulus(goalRads);
+        if (Math.abs(MathUtil.angleModulus(goalRads - this.goalRads)) > controller.getPositionTolerance()) {
+            this.goalRads = goalRads;
+            goalSetTime = now;
+            settled = false;
+        }
+
+        double feedback = controller.calculate(measuredRads, this.goalRads);
+        double feedforward = controller.getSetpoint().velocity;
+
+        if (!settled && controller.atGoal()) {
+            settled = true;
+            Logger.recordOutput("Swerve/Heading/SettleTimeSecs", now - goalSetTime);
+        }
+
+        Logger.recordOutput("Swerve/Heading/GoalRads", this.goalRads);
+        Logger.recordOutput("Swerve/Heading/SetpointRads", controller.getSetpoint().position);
+        Logger.recordOutput("Swerve/Heading/ErrorRads", controller.getPositionError());
+        Logger.recordOutput("Swerve/Heading/Settled", settled);
+
+        return MathUtil.clamp(feedforward + feedback, -maxVelocity, maxVelocity);
+    }
+
+    /**
+     * @return if the heading has reached the last goal
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+}
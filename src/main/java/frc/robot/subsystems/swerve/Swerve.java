@@ -1,10 +1,16 @@
 package frc.robot.subsystems.swerve;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.Pigeon2Configuration;
 import com.ctre.phoenix6.hardware.Pigeon2;
 import com.ctre.phoenix6.sim.Pigeon2SimState;
 
+import org.littletonrobotics.junction.Logger;
+
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
@@ -14,32 +20,113 @@ import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.util.Units;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
 import frc.robot.Robot;
 import frc.robot.Constants.kSwerve;
+import frc.robot.util.BootConfigurator;
+import frc.robot.util.ConcurrentPeriodic;
+import frc.robot.util.ConfigWorker;
+import frc.robot.util.ConfigWorker.Ticket;
+import frc.robot.util.ConfigWorker.WriteState;
+import frc.robot.util.JitWarmUp;
+import frc.robot.util.LatencyCompensator;
+import frc.robot.util.LatencyTracer;
+import frc.robot.util.LatencyTracer.Path;
+import frc.robot.util.SignalPlanner;
 
 public class Swerve extends SubsystemBase {
     private final SwerveDriveOdometry swerveOdometry;
     private final SwerveModule[] swerveMods;
+    private final TractionControl traction;
+    private final HeadingController headingController = new HeadingController(
+            kSwerve.HEADING_KP,
+            kSwerve.HEADING_KI,
+            kSwerve.HEADING_KD,
+            kSwerve.MAX_ANGULAR_VELOCITY,
+            kSwerve.MAX_ANGULAR_ACCELERATION,
+            kSwerve.HEADING_TOLERANCE);
+    private double headingGoalRads = 0.0;
     private final Field2d field = new Field2d();
+    private final SwerveSetpointGenerator setpointGenerator = createSetpointGenerator();
+
+    /** Sim modules and a separate generator so warming up never touches the real modules */
+    private final SwerveModule[] warmUpMods = new SwerveModule[] {
+            new SwerveModuleSim(Constants.kSwerve.Mod0.CONSTANTS),
+            new SwerveModuleSim(Constants.kSwerve.Mod1.CONSTANTS),
+            new SwerveModuleSim(Constants.kSwerve.Mod2.CONSTANTS),
+            new SwerveModuleSim(Constants.kSwerve.Mod3.CONSTANTS)
+    };
+    private final SwerveSetpointGenerator warmUpGenerator = createSetpointGenerator();
+    private double warmUpPhase = 0.0;
 
     private final Pigeon2 gyro;
     private final Pigeon2SimState gyroSim;
     private final StatusSignal<Double> gyroRollSignal;
     private final StatusSignal<Double> gyroPitchSignal;
     private final StatusSignal<Double> gyroYawSignal;
+    private final StatusSignal<Double> gyroYawRateSignal;
+    private final LatencyCompensator yawCompensator = new LatencyCompensator();
+    /** Every signal odometry reads, their rate follows the fast loop */
+    private final BaseStatusSignal[] odometrySignals;
+    /** The rate last asked of the odometry signals, the boot plan's until the fast loop is switched */
+    private double odometryHz = kSwerve.ODOMETRY_HZ;
+    /** The yaw brought to when it was last refreshed, guarded by ioLock */
+    private double yawDegrees;
+    /**
+     * Odometry was built before the boot configurator zeroed the gyro,
+     * it's re-based on the first yaw sampled after the boot steps finished
+     */
+    private boolean headingSeeded = false;
+    /** The gyro zero being written, the heading is re-based once the gyro reports after it */
+    private Ticket yawTicket = null;
+
+    /**
+     * When the fast loop runs it owns the signals, the setpoint generator and odometry,
+     * anything touching those from the main thread has to hold this lock
+     */
+    private final Object ioLock = new Object();
+    /** Only switched from the main thread while disabled, written under ioLock */
+    private volatile boolean fastLoop = false;
+    private final Notifier fastNotifier = new Notifier(this::fastPeriodic);
+    private final NetworkTableEntry fastLoopEntry = SmartDashboard.getEntry("Swerve Fast Loop");
+
+    // handed from the main loop to the fast loop, guarded by ioLock
+    private double requestVx = 0.0;
+    private double requestVy = 0.0;
+    private double requestOmega = 0.0;
+    private boolean requestOpenLoop = false;
+    private double requestTime = Double.NEGATIVE_INFINITY;
+    /** The packet the request came from, see {@link LatencyTracer#samplePacketNanos()} */
+    private long requestPacketNanos = 0;
+    private boolean requestActuated = true;
+
+    // handed from the fast loop back to the main loop, guarded by ioLock
+    private SwerveSetpointGenerator.SwerveSetpoint lastSetpoint = null;
+    private double lastFastTime = Double.NaN;
+    private int fastCycles = 0;
+    private double maxFastPeriod = 0.0;
+    /** When the first request since the last main loop was sent, 0 if none was */
+    private long actuatedNanos = 0;
+    private long actuatedPacketNanos = 0;
 
     public Swerve() {
         gyro = new Pigeon2(Constants.kSwerve.PIGEON_ID, Constants.kSwerve.CANBUS);
-        gyro.getConfigurator().apply(new Pigeon2Configuration());
+        BootConfigurator.pigeon2("Swerve/Gyro", gyro, new Pigeon2Configuration(), () -> gyro.setYaw(0.0));
         gyroSim = gyro.getSimState();
-        setYaw(0.0);
         gyroRollSignal = gyro.getRoll();
         gyroPitchSignal = gyro.getPitch();
         gyroYawSignal = gyro.getYaw();
+        gyroYawRateSignal = gyro.getAngularVelocityZWorld();
+        yawDegrees = gyroYawSignal.getValue();
+        SignalPlanner.plan("Swerve/Gyro", gyro, kSwerve.ODOMETRY_HZ, gyroYawSignal, gyroYawRateSignal);
+        SignalPlanner.plan("Swerve/Gyro", gyro, 50.0, gyroPitchSignal, gyroRollSignal);
 
         swerveMods = Robot.isReal() ? new SwerveModule[] {
                 new SwerveModuleReal(Constants.kSwerve.Mod0.CONSTANTS),
@@ -54,17 +141,92 @@ public class Swerve extends SubsystemBase {
                 new SwerveModuleSim(Constants.kSwerve.Mod3.CONSTANTS)
         };
 
+        var odometrySignalList = new ArrayList<BaseStatusSignal>(List.of(gyroYawSignal, gyroYawRateSignal));
+        for (SwerveModule module : swerveMods) {
+            odometrySignalList.addAll(List.of(module.getOdometrySignals()));
+        }
+        odometrySignals = odometrySignalList.toArray(new BaseStatusSignal[0]);
+
+        setpointGenerator.reset(getModuleStates());
+
+        traction = new TractionControl(
+                new Translation2d[] {
+                        Constants.kSwerve.Mod0.CHASSIS_OFFSET,
+                        Constants.kSwerve.Mod1.CHASSIS_OFFSET,
+                        Constants.kSwerve.Mod2.CHASSIS_OFFSET,
+                        Constants.kSwerve.Mod3.CHASSIS_OFFSET
+                },
+                getModulePositions(),
+                getYawRot().getRadians(),
+                kSwerve.SLIP_THRESHOLD,
+                kSwerve.TRACTION_MIN_SCALE,
+                kSwerve.TRACTION_SCALE_DROP,
+                kSwerve.TRACTION_SCALE_RECOVERY);
+
         swerveOdometry = new SwerveDriveOdometry(
                 kSwerve.SWERVE_KINEMATICS,
                 getYawRot(),
-                getModulePositions()
+                traction.getOdometryPositions()
         );
 
         SmartDashboard.putData("Field", field);
+
+        JitWarmUp.register("Swerve", this::warmUp);
+
+        fastNotifier.setName("SwerveFastLoop");
+        fastLoopEntry.setBoolean(kSwerve.FAST_LOOP_ENABLED);
+        setFastLoop(kSwerve.FAST_LOOP_ENABLED);
+        // the fast loop only changes between barriers so this never races it
+        ConcurrentPeriodic.register("Swerve", () -> {
+            if (!fastLoop) {
+                refreshSignals();
+            }
+        });
+    }
+
+    /**
+     * Moves drive control and odometry into or out of the fast loop and re-applies the rate
+     * of the signals odometry reads to match, only called from the main thread
+     */
+    private void setFastLoop(boolean enabled) {
+        if (enabled == fastLoop) {
+            return;
+        }
+        double hz = enabled ? kSwerve.FAST_ODOMETRY_HZ : kSwerve.MAIN_ODOMETRY_HZ;
+        if (hz != odometryHz) {
+            odometryHz = hz;
+            ConfigWorker.submit("Swerve/OdometryRates",
+                    () -> BaseStatusSignal.setUpdateFrequencyForAll(hz, odometrySignals));
+        }
+        if (enabled) {
+            synchronized (ioLock) {
+                lastFastTime = Double.NaN;
+                stopFastRequest();
+                fastLoop = true;
+            }
+            fastNotifier.startPeriodic(kSwerve.FAST_LOOP_PERIOD);
+        } else {
+            fastNotifier.stop();
+            // a cycle that already started sees this once it gets the lock and does nothing
+            synchronized (ioLock) {
+                fastLoop = false;
+                setpointGenerator.reset(getModuleStates());
+            }
+        }
+    }
+
+    private static SwerveSetpointGenerator createSetpointGenerator() {
+        return new SwerveSetpointGenerator(
+                kSwerve.SWERVE_KINEMATICS,
+                4,
+                kSwerve.MAX_SPEED,
+                kSwerve.MAX_ACCELERATION,
+                kSwerve.MAX_ANGULAR_ACCELERATION,
+                kSwerve.MAX_MODULE_STEER_VELOCITY);
     }
 
     public void drive(Translation2d translation, double rotation, boolean fieldRelative, boolean isOpenLoop) {
-        SwerveModuleState[] mSwerveModuleStates = kSwerve.SWERVE_KINEMATICS.toSwerveModuleStates(fieldRelative
+        driveSetpoint(fieldRelative
                 ? ChassisSpeeds.fromFieldRelativeSpeeds(
                         translation.getX(),
                         translation.getY(),
@@ -73,46 +235,99 @@ public class Swerve extends SubsystemBase {
                 : new ChassisSpeeds(
                         translation.getX(),
                         translation.getY(),
-                        rotation));
-
-        SwerveDriveKinematics.desaturateWheelSpeeds(mSwerveModuleStates, Constants.kSwerve.MAX_SPEED);
-
-        for (SwerveModule module : swerveMods) {
-            module.setDesiredState(mSwerveModuleStates[module.getModuleNumber()], isOpenLoop);
-        }
+                        rotation),
+                isOpenLoop);
     }
 
     public void drive(Translation2d translation, Translation2d absRotation, boolean isOpenLoop) {
-        // the angle of the translation vector
-        Double wantedAngle = Math.atan2(absRotation.getY(), absRotation.getX());
-        // a 0-1 value representing the magnitude of the translation vector
-        Double magnitude = absRotation.getNorm();
-        // the current angle reading of the gyro
-        Double currentAngle = getYawRot().getRadians();
-        // the angle of the translation vector relative to the gyro
-        Double relativeAngle = wantedAngle - currentAngle;
-
-        Double rotVelo;
-        if (relativeAngle < kSwerve.MAX_ANGULAR_VELOCITY * 0.02) {
-            rotVelo = relativeAngle * 50;
-        } else {
-            rotVelo = Math.signum(relativeAngle) * kSwerve.MAX_ANGULAR_VELOCITY * magnitude;
+        // a released stick holds the last heading instead of snapping to 0
+        if (absRotation.getNorm() > 0.0) {
+            headingGoalRads = Math.atan2(absRotation.getY(), absRotation.getX());
         }
+        double rotVelo = headingController.calculate(getYawRot().getRadians(), headingGoalRads);
 
-        SwerveModuleState[] mSwerveModuleStates = kSwerve.SWERVE_KINEMATICS.toSwerveModuleStates(
+        driveSetpoint(
                 ChassisSpeeds.fromFieldRelativeSpeeds(
                         translation.getX() * kSwerve.MAX_SPEED,
                         translation.getY() * kSwerve.MAX_SPEED,
                         rotVelo,
-                        getYawRot()));
+                        getYawRot()),
+                isOpenLoop);
+    }
+
+    /**
+     * Restarts absolute heading control from the current heading,
+     * should be called before starting to use {@link #drive(Translation2d, Translation2d, boolean)}
+     */
+    public void resetHeadingController() {
+        var yaw = getYawRot().getRadians();
+        headingGoalRads = yaw;
+        headingController.reset(yaw, 0.0);
+    }
+
+    /**
+     * Drives the modules through the {@link SwerveSetpointGenerator},
+     * limiting chassis acceleration and module steer velocity
+     * 
+     * @param speeds     robot relative chassis speeds
+     * @param isOpenLoop whether the module speeds should be reached via open or closed loop control
+     */
+    private void driveSetpoint(ChassisSpeeds speeds, boolean isOpenLoop) {
+        if (!BootConfigurator.isComplete(kSwerve.CANBUS)) return;
+        if (fastLoop) {
+            // the fast loop picks this up and generates setpoints towards it
+            synchronized (ioLock) {
+                requestVx = speeds.vxMetersPerSecond;
+                requestVy = speeds.vyMetersPerSecond;
+                requestOmega = speeds.omegaRadiansPerSecond;
+                requestOpenLoop = isOpenLoop;
+                requestTime = Timer.getFPGATimestamp();
+                requestPacketNanos = LatencyTracer.samplePacketNanos();
+                requestActuated = false;
+            }
+            return;
+        }
+        var setpoint = setpointGenerator.generate(speeds, 0.02);
+        applySetpoint(setpoint, swerveMods, isOpenLoop);
+        logSetpoint(setpoint);
+    }
 
-        SwerveDriveKinematics.desaturateWheelSpeeds(mSwerveModuleStates, Constants.kSwerve.MAX_SPEED);
+    private void logSetpoint(SwerveSetpointGenerator.SwerveSetpoint setpoint) {
+        Logger.recordOutput("Swerve/Setpoint/Vx", setpoint.chassisSpeeds.vxMetersPerSecond);
+        Logger.recordOutput("Swerve/Setpoint/Vy", setpoint.chassisSpeeds.vyMetersPerSecond);
+        Logger.recordOutput("Swerve/Setpoint/Omega", setpoint.chassisSpeeds.omegaRadiansPerSecond);
+        Logger.recordOutput("Swerve/Setpoint/AccelLimited", setpoint.accelLimited);
+        Logger.recordOutput("Swerve/Setpoint/SteerLimited", setpoint.steerLimited);
+    }
 
-        for (SwerveModule module : swerveMods) {
-            module.setDesiredState(mSwerveModuleStates[module.getModuleNumber()], isOpenLoop);
+    private void applySetpoint(SwerveSetpointGenerator.SwerveSetpoint setpoint, SwerveModule[] modules,
+            boolean isOpenLoop) {
+        for (SwerveModule module : modules) {
+            var moduleNumber = module.getModuleNumber();
+            var state = setpoint.moduleStates[moduleNumber];
+            // slipping modules get less torque until they grip again
+            module.applySetpoint(
+                    new SwerveModuleState(
+                            state.speedMetersPerSecond * traction.getTractionScale(moduleNumber),
+                            state.angle),
+                    isOpenLoop);
         }
     }
 
+    /**
+     * One iteration of the teleop drive path against the sim modules,
+     * the speeds sweep around so every branch of the generator gets hit
+     */
+    private void warmUp() {
+        warmUpPhase += 0.02;
+        var speeds = ChassisSpeeds.fromFieldRelativeSpeeds(
+                Math.sin(warmUpPhase) * kSwerve.MAX_SPEED,
+                Math.cos(warmUpPhase * 0.7) * kSwerve.MAX_SPEED,
+                Math.sin(warmUpPhase * 1.3) * kSwerve.MAX_ANGULAR_VELOCITY,
+                Rotation2d.fromRadians(warmUpPhase));
+        applySetpoint(warmUpGenerator.generate(speeds, 0.02), warmUpMods, false);
+    }
+
     public void driveRobotRelative(ChassisSpeeds speeds) {
         if (Robot.isReal()) speeds.omegaRadiansPerSecond *= -1;
         SwerveModuleState[] targetStates = kSwerve.SWERVE_KINEMATICS.toSwerveModuleStates(speeds);
@@ -126,8 +341,31 @@ public class Swerve extends SubsystemBase {
         setModuleStates(targetStates);
     }
 
+    /**
+     * Re-zeroes the gyro on the {@link ConfigWorker}, once the gyro reports the new yaw
+     * odometry keeps its position but takes the new heading, a failed zero is reported by the worker
+     */
     public void setYaw(double val) {
-        gyro.setYaw(val);
+        yawTicket = ConfigWorker.submit("Swerve/GyroYaw", () -> gyro.setYaw(val, kSwerve.GYRO_RESET_TIMEOUT));
+    }
+
+    /**
+     * Odometry keeps its position but takes the current heading, for after the gyro was reset
+     */
+    private void rebaseHeading() {
+        synchronized (ioLock) {
+            resetOdometry(new Pose2d(swerveOdometry.getPoseMeters().getTranslation(), getYawRot()));
+        }
+    }
+
+    /**
+     * @param time phoenix time, NaN if there's nothing to wait for
+     * @return true if the yaw in use was sampled after the time
+     */
+    private boolean yawSampledAfter(double time) {
+        synchronized (ioLock) {
+            return Double.isNaN(time) || gyroYawSignal.getTimestamp().getTime() > time;
+        }
     }
 
     public Rotation2d getYawRot() {
@@ -135,30 +373,44 @@ public class Swerve extends SubsystemBase {
     }
 
     public Double getYaw() {
-        return gyro.getYaw().getValue();
+        synchronized (ioLock) {
+            return yawDegrees;
+        }
     }
 
     public Double getPitch() {
-        return gyro.getPitch().getValue();
+        synchronized (ioLock) {
+            return gyro.getPitch().getValue();
+        }
     }
 
     public Double getRoll() {
-        return gyro.getRoll().getValue();
+        synchronized (ioLock) {
+            return gyro.getRoll().getValue();
+        }
     }
 
     public SwerveModulePosition[] getModulePositions() {
         SwerveModulePosition[] modulePositions = new SwerveModulePosition[4];
-        for (SwerveModule module : swerveMods) {
-            modulePositions[module.getModuleNumber()] = module.getCurrentPosition();
+        synchronized (ioLock) {
+            for (SwerveModule module : swerveMods) {
+                modulePositions[module.getModuleNumber()] = module.getCurrentPosition();
+            }
         }
         return modulePositions;
     }
 
     public void setModuleStates(SwerveModuleState[] desiredStates) {
+        if (!BootConfigurator.isComplete(kSwerve.CANBUS)) return;
         SwerveDriveKinematics.desaturateWheelSpeeds(desiredStates, Constants.kSwerve.MAX_SPEED);
 
-        for (SwerveModule module : swerveMods) {
-            module.setDesiredState(desiredStates[module.getModuleNumber()], false);
+        synchronized (ioLock) {
+            for (SwerveModule module : swerveMods) {
+                module.setDesiredState(desiredStates[module.getModuleNumber()], false);
+            }
+            // the generator didn't produce this, so it has to start from what the modules are doing
+            setpointGenerator.reset(getModuleStates());
+            stopFastRequest();
         }
     }
 
@@ -168,28 +420,245 @@ public class Swerve extends SubsystemBase {
 
     public SwerveModuleState[] getModuleStates() {
         SwerveModuleState[] states = new SwerveModuleState[4];
-        for (SwerveModule module : swerveMods) {
-            states[module.getModuleNumber()] = module.getCurrentState();
+        synchronized (ioLock) {
+            for (SwerveModule module : swerveMods) {
+                states[module.getModuleNumber()] = module.getCurrentState();
+            }
         }
         return states;
     }
 
+    /**
+     * Runs every drive motor at a raw voltage with the modules pointed forward,
+     * only meant for characterization
+     */
+    public void runDriveCharacterization(double volts) {
+        synchronized (ioLock) {
+            for (SwerveModule module : swerveMods) {
+                module.runDriveCharacterization(volts);
+            }
+            setpointGenerator.reset(getModuleStates());
+            stopFastRequest();
+        }
+    }
+
+    /**
+     * Runs every angle motor at a raw voltage with the drive motors stopped,
+     * only meant for characterization
+     */
+    public void runSteerCharacterization(double volts) {
+        synchronized (ioLock) {
+            for (SwerveModule module : swerveMods) {
+                module.runSteerCharacterization(volts);
+            }
+            setpointGenerator.reset(getModuleStates());
+            stopFastRequest();
+        }
+    }
+
+    /**
+     * @return the average distance driven by the modules in meters
+     */
+    public double getAverageDriveDistance() {
+        synchronized (ioLock) {
+            double total = 0.0;
+            for (SwerveModule module : swerveMods) {
+                total += module.getCurrentPosition().distanceMeters;
+            }
+            return total / swerveMods.length;
+        }
+    }
+
+    /**
+     * @return the average velocity of the modules in meters per second
+     */
+    public double getAverageDriveVelocity() {
+        synchronized (ioLock) {
+            double total = 0.0;
+            for (SwerveModule module : swerveMods) {
+                total += module.getCurrentState().speedMetersPerSecond;
+            }
+            return total / swerveMods.length;
+        }
+    }
+
+    /**
+     * @return the average angle of the modules in radians
+     */
+    public double getAverageSteerAngle() {
+        synchronized (ioLock) {
+            // averaged as unit vectors, the angles wrap
+            double cos = 0.0, sin = 0.0;
+            for (SwerveModule module : swerveMods) {
+                var angle = module.getCurrentPosition().angle;
+                cos += angle.getCos();
+                sin += angle.getSin();
+            }
+            return Math.atan2(sin, cos);
+        }
+    }
+
+    /**
+     * @return the average angular velocity of the modules in radians per second
+     */
+    public double getAverageSteerVelocity() {
+        synchronized (ioLock) {
+            double total = 0.0;
+            for (SwerveModule module : swerveMods) {
+                total += module.getSteerVelocity();
+            }
+            return total / swerveMods.length;
+        }
+    }
+
     public Pose2d getPose() {
-        return swerveOdometry.getPoseMeters();
+        synchronized (ioLock) {
+            return swerveOdometry.getPoseMeters();
+        }
     }
 
     public void resetOdometry(Pose2d pose) {
-        swerveOdometry.resetPosition(getYawRot(), getModulePositions(), pose);
+        synchronized (ioLock) {
+            traction.reset(getModulePositions(), getYawRot().getRadians());
+            swerveOdometry.resetPosition(getYawRot(), traction.getOdometryPositions(), pose);
+        }
     }
 
-    @Override
-    public void periodic() {
+    /** Something drove the modules directly, the fast loop shouldn't fight it with an old request */
+    private void stopFastRequest() {
+        requestTime = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Waits for the gyro and module signals, runs on the {@link ConcurrentPeriodic} pool when it's enabled
+     * and on the fast loop when that's enabled
+     */
+    private void refreshSignals() {
         gyroPitchSignal.refresh();
         gyroRollSignal.refresh();
         gyroYawSignal.refresh();
+        gyroYawRateSignal.refresh();
         for (SwerveModule module : swerveMods) {
             module.periodic();
         }
+        // the modules compensate their own signals so all of odometry lines up
+        yawDegrees = yawCompensator.update(gyroYawSignal, gyroYawRateSignal);
+    }
+
+    private void updateOdometry(double dt) {
+        // slipping modules are replaced with the motion implied by the rest of the chassis
+        var gyroRot = getYawRot();
+        var odometryPoses = traction.update(getModuleStates(), getModulePositions(), gyroRot.getRadians(), dt);
+        swerveOdometry.update(gyroRot, odometryPoses);
+    }
+
+    /**
+     * Drive control and odometry at {@link kSwerve#FAST_LOOP_PERIOD}, runs on the notifier thread
+     * so it can't log, the main loop logs what it hands back
+     */
+    private void fastPeriodic() {
+        synchronized (ioLock) {
+            if (!fastLoop) {
+                return;
+            }
+            double now = Timer.getFPGATimestamp();
+            double dt = Double.isNaN(lastFastTime) ? kSwerve.FAST_LOOP_PERIOD : now - lastFastTime;
+            lastFastTime = now;
+            maxFastPeriod = Math.max(maxFastPeriod, dt);
+            fastCycles++;
+
+            refreshSignals();
+            if (DriverStation.isDisabled()) {
+                setpointGenerator.reset(getModuleStates());
+            } else if (now - requestTime < kSwerve.FAST_LOOP_REQUEST_TIMEOUT
+                    && BootConfigurator.isComplete(kSwerve.CANBUS)) {
+                lastSetpoint = setpointGenerator.generate(
+                        new ChassisSpeeds(requestVx, requestVy, requestOmega), dt);
+                applySetpoint(lastSetpoint, swerveMods, requestOpenLoop);
+                // the tracer can't be told from here, the main loop hands it over
+                if (!requestActuated && actuatedNanos == 0) {
+                    actuatedNanos = System.nanoTime();
+                    actuatedPacketNanos = requestPacketNanos;
+                }
+                requestActuated = true;
+            }
+            updateOdometry(dt);
+        }
+    }
+
+    @Override
+    public void periodic() {
+        if (!headingSeeded && BootConfigurator.isComplete(kSwerve.CANBUS)
+                && yawSampledAfter(BootConfigurator.getFinishTime(kSwerve.CANBUS))) {
+            // nothing could drive before this so only the heading is off
+            headingSeeded = true;
+            rebaseHeading();
+            resetHeadingController();
+        }
+
+        if (yawTicket != null && yawTicket.isDone()) {
+            if (yawTicket.getState() != WriteState.SUCCEEDED) {
+                yawTicket = null;
+            } else if (yawSampledAfter(yawTicket.getDoneTime())) {
+                // a frame sent before the reset could still have been in flight until now
+                yawTicket = null;
+                rebaseHeading();
+                resetHeadingController();
+            }
+        }
+
+        if (DriverStation.isDisabled()) {
+            setFastLoop(fastLoopEntry.getBoolean(kSwerve.FAST_LOOP_ENABLED));
+        }
+
+        if (fastLoop) {
+            SwerveSetpointGenerator.SwerveSetpoint setpoint;
+            int cycles;
+            double maxPeriod;
+            long actuated, actuatedPacket;
+            synchronized (ioLock) {
+                setpoint = lastSetpoint;
+                cycles = fastCycles;
+                maxPeriod = maxFastPeriod;
+                actuated = actuatedNanos;
+                actuatedPacket = actuatedPacketNanos;
+                lastSetpoint = null;
+                fastCycles = 0;
+                maxFastPeriod = 0.0;
+                actuatedNanos = 0;
+            }
+            if (setpoint != null) {
+                logSetpoint(setpoint);
+            }
+            if (actuated != 0) {
+                LatencyTracer.actuatedOffThread(Path.DRIVE, actuatedPacket, actuated);
+            }
+            Logger.recordOutput("Swerve/FastLoop/Cycles", cycles);
+            Logger.recordOutput("Swerve/FastLoop/MaxPeriodMs", maxPeriod * 1000.0);
+        } else {
+            synchronized (ioLock) {
+                if (!ConcurrentPeriodic.isEnabled()) {
+                    refreshSignals();
+                }
+                if (DriverStation.isDisabled()) {
+                    setpointGenerator.reset(getModuleStates());
+                }
+                updateOdometry(0.02);
+            }
+        }
+
+        synchronized (ioLock) {
+            for (SwerveModule module : swerveMods) {
+                var prefix = "Swerve/Mod" + module.getModuleNumber();
+                var inputs = module.getInputs();
+                if (inputs != null) {
+                    Logger.processInputs(prefix, inputs);
+                }
+                module.log(prefix);
+            }
+            yawCompensator.log("Swerve/GyroYawExtrapolation");
+            Logger.recordOutput("Swerve/GyroYawTimestamp", gyroYawSignal.getTimestamp().getTime());
+        }
 
         var currCmd = this.getCurrentCommand();
         SmartDashboard.putString("swerve cmd", currCmd == null ? "None" : currCmd.getName());
@@ -200,11 +669,9 @@ public class Swerve extends SubsystemBase {
             SmartDashboard.putNumber("Module " + i + " Angle", modulePoses[i].angle.getDegrees());
         }
 
-        var gyroRot = getYawRot();
-        SmartDashboard.putNumber("Gyro Angle", gyroRot.getDegrees());
+        SmartDashboard.putNumber("Gyro Angle", getYawRot().getDegrees());
 
-        var pose = swerveOdometry.update(gyroRot, modulePoses);
-        field.getRobotObject().setPose(pose);
+        field.getRobotObject().setPose(getPose());
     }
 
     @Override
@@ -3,6 +3,8 @@ package frc.robot.subsystems.swerve;
 import org.littletonrobotics.junction.LogTable;
 import org.littletonrobotics.junction.inputs.LoggableInputs;
 
+import com.ctre.phoenix6.BaseStatusSignal;
+
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.util.Units;
@@ -12,6 +14,8 @@ public interface SwerveModule {
         public double driveVelo = 0.0;
         public double drivePositionRads = 0.0;
         public double angleAbsoluteRads = 0.0;
+        /** When the devices sampled the positions, phoenix time in seconds */
+        public double driveTimestamp = 0.0, angleTimestamp = 0.0;
 
         @Override
         public void toLog(LogTable table) {
@@ -19,6 +23,8 @@ public interface SwerveModule {
             table.put("DrivePositionRads", drivePositionRads);
             table.put("AngleAbsoluteRads", angleAbsoluteRads);
             table.put("AngleAbsoluteDegrees", Units.radiansToDegrees(angleAbsoluteRads));
+            table.put("DriveTimestamp", driveTimestamp);
+            table.put("AngleTimestamp", angleTimestamp);
         }
 
         @Override
@@ -26,6 +32,8 @@ public interface SwerveModule {
             driveVelo = table.get("DriveVelocity", driveVelo);
             drivePositionRads = table.get("DrivePositionRads", drivePositionRads);
             angleAbsoluteRads = table.get("AngleAbsoluteRads", angleAbsoluteRads);
+            driveTimestamp = table.get("DriveTimestamp", driveTimestamp);
+            angleTimestamp = table.get("AngleTimestamp", angleTimestamp);
         }
     }
 
@@ -35,6 +43,36 @@ public interface SwerveModule {
      */
     public void setDesiredState(SwerveModuleState desiredState, boolean isOpenLoop);
 
+    /**
+     * Unlike {@link #setDesiredState(SwerveModuleState, boolean)} the state is applied as is,
+     * it is expected to already be optimized and steer limited by a {@link SwerveSetpointGenerator}.
+     * 
+     * @param setpoint The state that the module should assume, angle and velocity.
+     * @param isOpenLoop Whether the module speed assumed should be reached via open or closed loop control.
+     */
+    public void applySetpoint(SwerveModuleState setpoint, boolean isOpenLoop);
+
+    /**
+     * Runs the drive motor at a raw voltage with the module pointed forward,
+     * only meant for characterization
+     * 
+     * @param volts to apply to the drive motor
+     */
+    public void runDriveCharacterization(double volts);
+
+    /**
+     * Runs the angle motor at a raw voltage with the drive motor stopped,
+     * only meant for characterization
+     * 
+     * @param volts to apply to the angle motor
+     */
+    public void runSteerCharacterization(double volts);
+
+    /**
+     * @return The angular velocity of the module in radians per second.
+     */
+    public double getSteerVelocity();
+
     /**
      * @return The velocity/angle of the module.
      */
@@ -48,4 +86,25 @@ public interface SwerveModule {
     public int getModuleNumber();
 
     default public void periodic(){}
+
+    /**
+     * @return the signals odometry reads, updated at {@link frc.robot.Constants.kSwerve#ODOMETRY_HZ}
+     */
+    default public BaseStatusSignal[] getOdometrySignals() {
+        return new BaseStatusSignal[0];
+    }
+
+    /**
+     * @return the module's inputs, null if it doesn't have any to log
+     */
+    default public SwerveModuleInputs getInputs() {
+        return null;
+    }
+
+    /**
+     * Logs anything the module measured about itself, only called from the main thread
+     *
+     * @param prefix where to log
+     */
+    default public void log(String prefix) {}
 }
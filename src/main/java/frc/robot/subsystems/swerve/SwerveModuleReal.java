@@ -3,6 +3,7 @@ package frc.robot.subsystems.swerve;
 import com.ctre.phoenix6.controls.DutyCycleOut;
 import com.ctre.phoenix6.controls.PositionDutyCycle;
 import com.ctre.phoenix6.controls.VelocityVoltage;
+import com.ctre.phoenix6.controls.VoltageOut;
 import com.ctre.phoenix6.hardware.CANcoder;
 import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.AbsoluteSensorRangeValue;
@@ -10,6 +11,7 @@ import com.ctre.phoenix6.signals.FeedbackSensorSourceValue;
 
 import org.littletonrobotics.junction.Logger;
 
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.CANcoderConfiguration;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
@@ -18,7 +20,13 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.util.Units;
 import frc.robot.Constants.kSwerve;
+import frc.robot.util.BootConfigurator;
+import frc.robot.util.LatencyCompensator;
+import frc.robot.util.LatencyTracer;
+import frc.robot.util.LatencyTracer.Path;
+import frc.robot.util.SignalPlanner;
 import frc.robot.util.SwerveModuleConstants;
 
 public class SwerveModuleReal implements SwerveModule {
@@ -43,6 +51,9 @@ public class SwerveModuleReal implements SwerveModule {
     private final Translation2d moduleChassisPose;
     private Rotation2d lastAngle = new Rotation2d();
     private final SwerveModuleInputs inputs;
+    private final LatencyCompensator driveCompensator = new LatencyCompensator();
+    /** The absolute angle wraps so only the value is used, its error isn't meaningful */
+    private final LatencyCompensator angleCompensator = new LatencyCompensator();
 
     public SwerveModuleReal(final SwerveModuleConstants moduleConstants) {
         this.moduleNumber = moduleConstants.moduleId.num;
@@ -66,7 +77,16 @@ public class SwerveModuleReal implements SwerveModule {
         angleAbsoluteSignal = angleEncoder.getAbsolutePosition();
         angleAbsoluteVeloSignal = angleEncoder.getVelocity();
 
+        var name = "Swerve/Mod" + moduleNumber;
+        SignalPlanner.plan(name + "/Drive", driveMotor, kSwerve.ODOMETRY_HZ, drivePositionSignal, driveVelocitySignal);
+        SignalPlanner.plan(name + "/Angle", angleMotor, 50.0, anglePositionSignal, angleVelocitySignal);
+        SignalPlanner.plan(name + "/CANcoder", angleEncoder, kSwerve.ODOMETRY_HZ, angleAbsoluteSignal);
+        // the angle motor fuses this into its feedback
+        SignalPlanner.plan(name + "/CANcoder", angleEncoder, 100.0, angleEncoder.getPosition());
+        SignalPlanner.plan(name + "/CANcoder", angleEncoder, 50.0, angleAbsoluteVeloSignal);
+
         inputs = new SwerveModuleInputs();
+        periodic();
     }
 
     private void configureDriveMotor() {
@@ -78,7 +98,7 @@ public class SwerveModuleReal implements SwerveModule {
         driveConfig.Slot0.kD = kSwerve.DRIVE_KD;
         driveConfig.Slot0.kV = 12.0 / (kSwerve.MAX_SPEED / kSwerve.METERS_PER_DRIVE_MOTOR_ROTATION);
 
-        driveMotor.getConfigurator().apply(driveConfig);
+        BootConfigurator.talonFX("Swerve/Mod" + moduleNumber + "/Drive", driveMotor, driveConfig, null);
     }
 
     private void configureAngleMotor() {
@@ -94,7 +114,7 @@ public class SwerveModuleReal implements SwerveModule {
         angleConfig.Feedback.SensorToMechanismRatio = 1.0;
         angleConfig.ClosedLoopGeneral.ContinuousWrap = true;
 
-        angleMotor.getConfigurator().apply(angleConfig);
+        BootConfigurator.talonFX("Swerve/Mod" + moduleNumber + "/Angle", angleMotor, angleConfig, null);
     }
 
     private void configureCANcoder() {
@@ -103,7 +123,7 @@ public class SwerveModuleReal implements SwerveModule {
         canCoderConfig.MagnetSensor.SensorDirection = kSwerve.CANCODER_INVERT;
         canCoderConfig.MagnetSensor.MagnetOffset = -rotationOffset.getRotations();
 
-        angleEncoder.getConfigurator().apply(canCoderConfig);
+        BootConfigurator.canCoder("Swerve/Mod" + moduleNumber + "/CANcoder", angleEncoder, canCoderConfig, null);
     }
 
     public int getModuleNumber() {
@@ -117,10 +137,20 @@ public class SwerveModuleReal implements SwerveModule {
         setSpeed(desiredState, isOpenLoop);
     }
 
+    @Override
+    public void applySetpoint(SwerveModuleState setpoint, boolean isOpenLoop) {
+        applyAngle(setpoint.angle);
+        setSpeed(setpoint, isOpenLoop);
+    }
+
     private void setAngle(SwerveModuleState desiredState) {
         Rotation2d angle = (Math.abs(desiredState.speedMetersPerSecond) <= (kSwerve.MAX_SPEED * 0.01)) ? lastAngle
                 : desiredState.angle;
 
+        applyAngle(angle);
+    }
+
+    private void applyAngle(Rotation2d angle) {
         angleMotor.setControl(new PositionDutyCycle(angle.getRotations()));
         lastAngle = angle;
     }
@@ -130,32 +160,62 @@ public class SwerveModuleReal implements SwerveModule {
             double percentOutput = desiredState.speedMetersPerSecond / kSwerve.MAX_SPEED;
             var controlRequest = new DutyCycleOut(percentOutput);
             driveMotor.setControl(controlRequest);
+            LatencyTracer.actuated(Path.DRIVE);
         } else {
             double rps = Math.min(desiredState.speedMetersPerSecond, kSwerve.MAX_SPEED)
                     / kSwerve.METERS_PER_DRIVE_MOTOR_ROTATION;
             var veloRequest = new VelocityVoltage(rps).withEnableFOC(true);
             driveMotor.setControl(veloRequest);
+            LatencyTracer.actuated(Path.DRIVE);
         }
     }
 
     public SwerveModuleState getCurrentState() {
-        return new SwerveModuleState(
-                driveRotationsToMeters(driveVelocitySignal.getValue()),
-                getAngle());
+        return new SwerveModuleState(inputs.driveVelo, getAngle());
     }
 
     public SwerveModulePosition getCurrentPosition() {
         return new SwerveModulePosition(
-                driveRotationsToMeters(drivePositionSignal.getValue()),
+                driveRotationsToMeters(Units.radiansToRotations(inputs.drivePositionRads)),
                 getAngle());
     }
 
+    @Override
+    public BaseStatusSignal[] getOdometrySignals() {
+        return new BaseStatusSignal[] { drivePositionSignal, driveVelocitySignal, angleAbsoluteSignal };
+    }
+
+    @Override
+    public SwerveModuleInputs getInputs() {
+        return inputs;
+    }
+
+    @Override
+    public void log(String prefix) {
+        driveCompensator.log(prefix + "/DriveExtrapolation");
+    }
+
+    public void runDriveCharacterization(double volts) {
+        applyAngle(new Rotation2d());
+        driveMotor.setControl(new VoltageOut(volts));
+    }
+
+    public void runSteerCharacterization(double volts) {
+        driveMotor.setControl(new VoltageOut(0.0));
+        angleMotor.setControl(new VoltageOut(volts));
+        lastAngle = getAngle();
+    }
+
+    public double getSteerVelocity() {
+        return angleAbsoluteVeloSignal.getValue() * 2.0 * Math.PI;
+    }
+
     private double driveRotationsToMeters(double rotations) {
         return rotations * kSwerve.METERS_PER_DRIVE_MOTOR_ROTATION;
     }
 
     private Rotation2d getAngle() {
-        return Rotation2d.fromRotations(angleAbsoluteSignal.getValue());
+        return Rotation2d.fromRadians(inputs.angleAbsoluteRads);
     }
 
     public void periodic() {
@@ -165,5 +225,14 @@ public class SwerveModuleReal implements SwerveModule {
         angleVelocitySignal.refresh();
         angleAbsoluteSignal.refresh();
         angleAbsoluteVeloSignal.refresh();
+
+        // the drive position and angle come from different devices, both are brought to now for odometry
+        inputs.drivePositionRads = Units.rotationsToRadians(
+                driveCompensator.update(drivePositionSignal, driveVelocitySignal));
+        inputs.angleAbsoluteRads = Units.rotationsToRadians(
+                angleCompensator.update(angleAbsoluteSignal, angleAbsoluteVeloSignal));
+        inputs.driveVelo = driveRotationsToMeters(driveVelocitySignal.getValue());
+        inputs.driveTimestamp = drivePositionSignal.getTimestamp().getTime();
+        inputs.angleTimestamp = angleAbsoluteSignal.getTimestamp().getTime();
     }
 }
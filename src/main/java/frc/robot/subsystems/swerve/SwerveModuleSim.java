@@ -7,6 +7,7 @@ import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.simulation.FlywheelSim;
 import frc.robot.Constants.kSwerve;
 import frc.robot.util.SwerveModuleConstants;
@@ -26,6 +27,8 @@ public class SwerveModuleSim implements SwerveModule{
     private double driveAppliedVolts = 0.0;
     private double angleAppliedVolts = 0.0;
     private Rotation2d lastAngle = new Rotation2d();
+    /** The sim steps by the time since the last periodic so it runs at the same speed in the swerve fast loop */
+    private double lastUpdateTime = Double.NaN;
 
     public int moduleNumber;
 
@@ -62,14 +65,41 @@ public class SwerveModuleSim implements SwerveModule{
         return this.moduleNumber;
     }
 
+    public void runDriveCharacterization(double volts) {
+        applyAngle(new Rotation2d());
+        driveAppliedVolts = volts;
+        driveSim.setInputVoltage(driveAppliedVolts);
+    }
+
+    public void runSteerCharacterization(double volts) {
+        driveAppliedVolts = 0.0;
+        driveSim.setInputVoltage(driveAppliedVolts);
+        angleAppliedVolts = volts;
+        angleSim.setInputVoltage(angleAppliedVolts);
+    }
+
+    public double getSteerVelocity() {
+        return angleSim.getAngularVelocityRadPerSec();
+    }
+
     private Rotation2d getAngle() {
         return lastAngle;
     }
 
+    public void applySetpoint(SwerveModuleState setpoint, boolean isOpenLoop) {
+        applyAngle(setpoint.angle);
+        // setSpeed mutates the state, the setpoint is owned by the generator
+        setSpeed(new SwerveModuleState(setpoint.speedMetersPerSecond, setpoint.angle), isOpenLoop);
+    }
+
     private void setAngle(SwerveModuleState desiredState) {
         Rotation2d angle = (Math.abs(desiredState.speedMetersPerSecond) <= (kSwerve.MAX_SPEED * 0.01)) ? lastAngle
                 : desiredState.angle;
 
+        applyAngle(angle);
+    }
+
+    private void applyAngle(Rotation2d angle) {
         angleAppliedVolts = MathUtil.clamp(
             angleFeedback.calculate(getAngle().getRadians(), angle.getRadians()), 
             -1.0 * RobotController.getBatteryVoltage(), 
@@ -92,12 +122,16 @@ public class SwerveModuleSim implements SwerveModule{
 
     @Override
     public void periodic() {
-        driveSim.update(0.02);
-        angleSim.update(0.02);
+        double now = Timer.getFPGATimestamp();
+        double dt = Double.isNaN(lastUpdateTime) ? 0.02 : now - lastUpdateTime;
+        lastUpdateTime = now;
+
+        driveSim.update(dt);
+        angleSim.update(dt);
 
-        drivePositionRad += driveSim.getAngularVelocityRadPerSec() * 0.02;
+        drivePositionRad += driveSim.getAngularVelocityRadPerSec() * dt;
 
-        double angleDiffRad = angleSim.getAngularVelocityRadPerSec() * 0.02;
+        double angleDiffRad = angleSim.getAngularVelocityRadPerSec() * dt;
         angleRelativePositionRad += angleDiffRad;
         angleAbsolutePositionRad += angleDiffRad;
 
@@ -0,0 +1,198 @@
+package frc.robot.subsystems.swerve;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * Sits between the commanded {@link ChassisSpeeds} and the module states sent to
+ * the {@link SwerveModule}s.
+ * <p>
+ * Limits the chassis linear/angular acceleration and how fast each module is asked
+ * to steer, if the modules cannot physically follow the command the chassis speeds
+ * are scaled back until they can instead of letting the wheels scrub.
+ */
+public class SwerveSetpointGenerator {
+
+    /** The output of the generator, what the modules should be commanded to */
+    public static class SwerveSetpoint {
+        public final ChassisSpeeds chassisSpeeds;
+        public final SwerveModuleState[] moduleStates;
+        /** true if the acceleration limits reduced the command this cycle */
+        public final boolean accelLimited;
+        /** true if one or more modules could not steer fast enough to follow the command */
+        public final boolean steerLimited;
+
+        public SwerveSetpoint(
+                ChassisSpeeds chassisSpeeds, SwerveModuleState[] moduleStates,
+                boolean accelLimited, boolean steerLimited) {
+            this.chassisSpeeds = chassisSpeeds;
+            this.moduleStates = moduleStates;
+            this.accelLimited = accelLimited;
+            this.steerLimited = steerLimited;
+        }
+    }
+
+    /** Below this a module is treated as stopped and its angle is free to change */
+    private static final double STOPPED_EPSILON = 1e-3;
+    /** How many times the interpolation is halved when searching for a steerable command */
+    private static final int STEER_SEARCH_ITERATIONS = 10;
+
+    private final SwerveDriveKinematics kinematics;
+    private final int moduleCount;
+    private final double maxSpeed, maxAccel, maxAngularAccel, maxSteerVelo;
+
+    private SwerveSetpoint prevSetpoint;
+
+    /**
+     * @param kinematics      the kinematics of the drivetrain
+     * @param moduleCount     the number of modules in the kinematics
+     * @param maxSpeed        max module speed in meters per second
+     * @param maxAccel        max chassis acceleration in meters per second squared
+     * @param maxAngularAccel max chassis angular acceleration in radians per second squared
+     * @param maxSteerVelo    max module steer velocity in radians per second
+     */
+    public SwerveSetpointGenerator(
+            SwerveDriveKinematics kinematics, int moduleCount,
+            double maxSpeed, double maxAccel,
+            double maxAngularAccel, double maxSteerVelo) {
+        this.kinematics = kinematics;
+        this.moduleCount = moduleCount;
+        this.maxSpeed = maxSpeed;
+        this.maxAccel = maxAccel;
+        this.maxAngularAccel = maxAngularAccel;
+        this.maxSteerVelo = maxSteerVelo;
+
+        var stopped = new SwerveModuleState[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            stopped[i] = new SwerveModuleState();
+        }
+        this.prevSetpoint = new SwerveSetpoint(new ChassisSpeeds(), stopped, false, false);
+    }
+
+    /**
+     * Seeds the generator with what the modules are actually doing,
+     * should be called whenever the modules were commanded outside of the generator
+     *
+     * @param measuredStates the current states of the modules
+     */
+    public void reset(SwerveModuleState[] measuredStates) {
+        var states = new SwerveModuleState[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            states[i] = new SwerveModuleState(
+                    measuredStates[i].speedMetersPerSecond,
+                    measuredStates[i].angle);
+        }
+        this.prevSetpoint = new SwerveSetpoint(kinematics.toChassisSpeeds(states), states, false, false);
+    }
+
+    /**
+     * @return the last setpoint produced by the generator
+     */
+    public SwerveSetpoint getPrevSetpoint() {
+        return prevSetpoint;
+    }
+
+    /**
+     * Generates the next setpoint towards the desired chassis speeds
+     *
+     * @param desiredSpeeds the chassis speeds that are wanted, robot relative
+     * @param dt            the time until the next call in seconds
+     * @return the setpoint the modules should be commanded to
+     */
+    public SwerveSetpoint generate(ChassisSpeeds desiredSpeeds, double dt) {
+        var prevSpeeds = prevSetpoint.chassisSpeeds;
+
+        // first make the desired speeds something the wheels can actually do
+        var desiredStates = kinematics.toSwerveModuleStates(desiredSpeeds);
+        SwerveDriveKinematics.desaturateWheelSpeeds(desiredStates, maxSpeed);
+        var desired = kinematics.toChassisSpeeds(desiredStates);
+
+        // how much of the way from the previous speeds to the desired speeds can we go
+        double scale = 1.0;
+        double dvx = desired.vxMetersPerSecond - prevSpeeds.vxMetersPerSecond;
+        double dvy = desired.vyMetersPerSecond - prevSpeeds.vyMetersPerSecond;
+        double dOmega = desired.omegaRadiansPerSecond - prevSpeeds.omegaRadiansPerSecond;
+        double dv = Math.hypot(dvx, dvy);
+        if (dv > maxAccel * dt) {
+            scale = Math.min(scale, (maxAccel * dt) / dv);
+        }
+        if (Math.abs(dOmega) > maxAngularAccel * dt) {
+            scale = Math.min(scale, (maxAngularAccel * dt) / Math.abs(dOmega));
+        }
+        boolean accelLimited = scale < 1.0;
+
+        // shrink the step until every moving module can steer to its new angle in time
+        double maxSteerStep = maxSteerVelo * dt;
+        boolean steerLimited = false;
+        if (!canSteerTo(interpolate(prevSpeeds, desired, scale), maxSteerStep)) {
+            steerLimited = true;
+            double lower = 0.0;
+            double upper = scale;
+            for (int i = 0; i < STEER_SEARCH_ITERATIONS; i++) {
+                double mid = (lower + upper) / 2.0;
+                if (canSteerTo(interpolate(prevSpeeds, desired, mid), maxSteerStep)) {
+                    lower = mid;
+                } else {
+                    upper = mid;
+                }
+            }
+            scale = lower;
+        }
+
+        var outSpeeds = interpolate(prevSpeeds, desired, scale);
+        var outStates = kinematics.toSwerveModuleStates(outSpeeds);
+        for (int i = 0; i < moduleCount; i++) {
+            var prevAngle = prevSetpoint.moduleStates[i].angle;
+            if (Math.abs(outStates[i].speedMetersPerSecond) < STOPPED_EPSILON) {
+                // a stopped module only steers if it will need to move soon,
+                // this pre-aligns the wheels so the next cycles are feasible
+                var target = Math.abs(desiredStates[i].speedMetersPerSecond) < STOPPED_EPSILON
+                        ? prevAngle
+                        : SwerveModuleState.optimize(desiredStates[i], prevAngle).angle;
+                outStates[i] = new SwerveModuleState(0.0, stepTowards(prevAngle, target, maxSteerStep));
+            } else {
+                var optimized = SwerveModuleState.optimize(outStates[i], prevAngle);
+                outStates[i] = new SwerveModuleState(
+                        optimized.speedMetersPerSecond,
+                        stepTowards(prevAngle, optimized.angle, maxSteerStep));
+            }
+        }
+
+        prevSetpoint = new SwerveSetpoint(outSpeeds, outStates, accelLimited, steerLimited);
+        return prevSetpoint;
+    }
+
+    /**
+     * @return true if all moving modules can reach the angles needed for the given
+     *         speeds within one steer step, allowing 180 degree flips
+     */
+    private boolean canSteerTo(ChassisSpeeds speeds, double maxSteerStep) {
+        var states = kinematics.toSwerveModuleStates(speeds);
+        for (int i = 0; i < moduleCount; i++) {
+            if (Math.abs(states[i].speedMetersPerSecond) < STOPPED_EPSILON) {
+                continue;
+            }
+            var optimized = SwerveModuleState.optimize(states[i], prevSetpoint.moduleStates[i].angle);
+            var delta = optimized.angle.minus(prevSetpoint.moduleStates[i].angle).getRadians();
+            if (Math.abs(delta) > maxSteerStep) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Rotation2d stepTowards(Rotation2d from, Rotation2d to, double maxStep) {
+        var delta = to.minus(from).getRadians();
+        return from.plus(Rotation2d.fromRadians(MathUtil.clamp(delta, -maxStep, maxStep)));
+    }
+
+    private static ChassisSpeeds interpolate(ChassisSpeeds from, ChassisSpeeds to, double t) {
+        return new ChassisSpeeds(
+                from.vxMetersPerSecond + t * (to.vxMetersPerSecond - from.vxMetersPerSecond),
+                from.vyMetersPerSecond + t * (to.vyMetersPerSecond - from.vyMetersPerSecond),
+                from.omegaRadiansPerSecond + t * (to.omegaRadiansPerSecond - from.omegaRadiansPerSecond));
+    }
+}
@@ -0,0 +1,176 @@
+package frc.robot.subsystems.swerve;
+
+import java.util.Arrays;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * Detects wheels that have broken traction by comparing each module's measured
+ * velocity against the chassis motion implied by the gyro and the other modules.
+ * <p>
+ * Slipping modules get their commanded speed (and so torque) reduced and are dropped
+ * from odometry, their distance is instead integrated from the estimated chassis motion.
+ */
+public class TractionControl {
+    private final Translation2d[] moduleOffsets;
+    private final int moduleCount;
+    private final double slipThreshold, minScale, scaleDropPerCycle, scaleRecoverPerSec;
+
+    private final boolean[] slipping;
+    private final double[] residuals;
+    private final double[] tractionScales;
+    private final double[] impliedVx, impliedVy, sortScratch;
+    private final double[] lastDistances, odometryDistances;
+    private final SwerveModulePosition[] odometryPositions;
+
+    private double lastYawRads;
+    private double chassisVx = 0.0, chassisVy = 0.0, omega = 0.0;
+
+    /**
+     * @param moduleOffsets      the position of each module relative to the robot center
+     * @param initialPositions   the current module positions
+     * @param initialYawRads     the current gyro yaw
+     * @param slipThreshold      meters per second a module can disagree with the chassis before it is slipping
+     * @param minScale           the smallest the commanded speed of a slipping module can be scaled to
+     * @param scaleDropPerCycle  how much the speed scale is multiplied by each cycle a module slips
+     * @param scaleRecoverPerSec how fast the speed scale returns to 1.0 once the module grips again
+     */
+    public TractionControl(
+            Translation2d[] moduleOffsets, SwerveModulePosition[] initialPositions, double initialYawRads,
+            double slipThreshold, double minScale, double scaleDropPerCycle, double scaleRecoverPerSec) {
+        this.moduleOffsets = moduleOffsets;
+        this.moduleCount = moduleOffsets.length;
+        this.slipThreshold = slipThreshold;
+        this.minScale = minScale;
+        this.scaleDropPerCycle = scaleDropPerCycle;
+        this.scaleRecoverPerSec = scaleRecoverPerSec;
+
+        slipping = new boolean[moduleCount];
+        residuals = new double[moduleCount];
+        tractionScales = new double[moduleCount];
+        impliedVx = new double[moduleCount];
+        impliedVy = new double[moduleCount];
+        sortScratch = new double[moduleCount];
+        lastDistances = new double[moduleCount];
+        odometryDistances = new double[moduleCount];
+        odometryPositions = new SwerveModulePosition[moduleCount];
+        reset(initialPositions, initialYawRads);
+    }
+
+    /**
+     * Forgets all slip history and re-seeds odometry distances,
+     * should be called whenever odometry is reset
+     */
+    public void reset(SwerveModulePosition[] positions, double yawRads) {
+        for (int i = 0; i < moduleCount; i++) {
+            slipping[i] = false;
+            residuals[i] = 0.0;
+            tractionScales[i] = 1.0;
+            lastDistances[i] = positions[i].distanceMeters;
+            odometryDistances[i] = positions[i].distanceMeters;
+            odometryPositions[i] = new SwerveModulePosition(positions[i].distanceMeters, positions[i].angle);
+        }
+        lastYawRads = yawRads;
+    }
+
+    /**
+     * Runs slip detection for this cycle
+     *
+     * @param states    the measured module states
+     * @param positions the measured module positions
+     * @param yawRads   the gyro yaw
+     * @param dt        seconds since the last update
+     * @return module positions with slipping modules replaced by the estimated chassis motion,
+     *         to be fed into odometry
+     */
+    public SwerveModulePosition[] update(
+            SwerveModuleState[] states, SwerveModulePosition[] positions,
+            double yawRads, double dt) {
+        omega = MathUtil.angleModulus(yawRads - lastYawRads) / dt;
+        lastYawRads = yawRads;
+
+        // each module implies a chassis translation once the gyro's rotation is removed
+        for (int i = 0; i < moduleCount; i++) {
+            var offset = moduleOffsets[i];
+            var angle = states[i].angle;
+            double vx = states[i].speedMetersPerSecond * angle.getCos();
+            double vy = states[i].speedMetersPerSecond * angle.getSin();
+            impliedVx[i] = vx + omega * offset.getY();
+            impliedVy[i] = vy - omega * offset.getX();
+        }
+        // the median is robust to a minority of modules slipping
+        chassisVx = median(impliedVx);
+        chassisVy = median(impliedVy);
+
+        for (int i = 0; i < moduleCount; i++) {
+            var offset = moduleOffsets[i];
+            double expectedVx = chassisVx - omega * offset.getY();
+            double expectedVy = chassisVy + omega * offset.getX();
+            double vx = impliedVx[i] - omega * offset.getY();
+            double vy = impliedVy[i] + omega * offset.getX();
+            residuals[i] = Math.hypot(vx - expectedVx, vy - expectedVy);
+            slipping[i] = residuals[i] > slipThreshold;
+
+            if (slipping[i]) {
+                tractionScales[i] = Math.max(minScale, tractionScales[i] * scaleDropPerCycle);
+            } else {
+                tractionScales[i] = Math.min(1.0, tractionScales[i] + scaleRecoverPerSec * dt);
+            }
+
+            double measuredDelta = positions[i].distanceMeters - lastDistances[i];
+            lastDistances[i] = positions[i].distanceMeters;
+            if (slipping[i]) {
+                // only the part of the chassis motion along the wheel moves it
+                var angle = positions[i].angle;
+                odometryDistances[i] += (expectedVx * angle.getCos() + expectedVy * angle.getSin()) * dt;
+            } else {
+                odometryDistances[i] += measuredDelta;
+            }
+            odometryPositions[i] = new SwerveModulePosition(odometryDistances[i], positions[i].angle);
+        }
+
+        Logger.recordOutput("Swerve/Traction/Slipping", slipping);
+        Logger.recordOutput("Swerve/Traction/Residuals", residuals);
+        Logger.recordOutput("Swerve/Traction/Scales", tractionScales);
+
+        return odometryPositions;
+    }
+
+    /**
+     * @return the module positions last fed to odometry
+     */
+    public SwerveModulePosition[] getOdometryPositions() {
+        return odometryPositions;
+    }
+
+    /**
+     * @param moduleNumber the module's index
+     * @return how much the module's commanded speed should be scaled by, 1.0 if it has grip
+     */
+    public double getTractionScale(int moduleNumber) {
+        return tractionScales[moduleNumber];
+    }
+
+    /**
+     * @param moduleNumber the module's index
+     * @return if the module was slipping as of the last update
+     */
+    public boolean isSlipping(int moduleNumber) {
+        return slipping[moduleNumber];
+    }
+
+    private double median(double[] values) {
+        System.arraycopy(values, 0, sortScratch, 0, moduleCount);
+        Arrays.sort(sortScratch);
+        int mid = moduleCount / 2;
+        if (moduleCount % 2 == 0) {
+            return (sortScratch[mid - 1] + sortScratch[mid]) / 2.0;
+        }
+        return sortScratch[mid];
+    }
+}
@@ -0,0 +1,362 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.littletonrobotics.junction.Logger;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.Utils;
+import com.ctre.phoenix6.configs.CANcoderConfiguration;
+import com.ctre.phoenix6.configs.CANcoderConfigurator;
+import com.ctre.phoenix6.configs.Pigeon2Configuration;
+import com.ctre.phoenix6.configs.Pigeon2Configurator;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.configs.TalonFXConfigurator;
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.Pigeon2;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.util.ErrorHelper.Error;
+
+/**
+ * Configures devices at boot without making robot init wait on each one in turn,
+ * devices on the same bus are configured in parallel and every config is read back
+ * to verify it stuck.
+ * <p>
+ * The device config is read before anything is written and only the sections that differ
+ * are applied, a device that already holds the desired config isn't written at all.
+ * <p>
+ * Subsystems should check {@link #isComplete(String)} for their bus before enabling,
+ * a device that couldn't be configured keeps its bus from ever completing.
+ */
+public class BootConfigurator {
+    /** How many devices on a bus can be configured at once */
+    private static final int THREADS_PER_BUS = 4;
+    /** How many times a config or post config step is applied before giving up */
+    private static final int ATTEMPTS = 3;
+
+    private static final Map<String, ExecutorService> executors = new HashMap<>();
+    private static final Map<String, List<Future<?>>> tasks = new HashMap<>();
+    /** Messages from the worker threads waiting to be reported from the main thread */
+    private static final ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+    /** How long each device took, waiting to be logged from the main thread */
+    private static final ConcurrentLinkedQueue<Map.Entry<String, Double>> deviceTimes = new ConcurrentLinkedQueue<>();
+    /** What was written to each device, waiting to be logged from the main thread */
+    private static final ConcurrentLinkedQueue<Map.Entry<String, List<String>>> changes = new ConcurrentLinkedQueue<>();
+    /** Buses with a device that couldn't be configured */
+    private static final Set<String> failedBuses = ConcurrentHashMap.newKeySet();
+    /** Devices that couldn't be configured, waiting to be logged from the main thread */
+    private static final ConcurrentLinkedQueue<String> newlyFailedDevices = new ConcurrentLinkedQueue<>();
+    private static final List<String> failedDevices = new ArrayList<>();
+    /** When the last boot step on each bus finished, phoenix time */
+    private static final Map<String, Double> busFinishTimes = new ConcurrentHashMap<>();
+
+    private static double startTime = Double.NaN;
+    private static volatile double lastFinishTime = Double.NaN;
+    private static boolean reported = false;
+
+    /**
+     * Applies a config to a TalonFX and verifies it
+     *
+     * @param name       how the device is referred to in logs
+     * @param device     the device to configure
+     * @param config     the config the device should have
+     * @param afterApply run once the config is verified, position seeding for example,
+     *                   retried like the config if it fails, can be null
+     */
+    public static void talonFX(String name, TalonFX device, TalonFXConfiguration config,
+            Supplier<StatusCode> afterApply) {
+        var configurator = device.getConfigurator();
+        register(name, device.getNetwork(), config, TalonFXConfiguration::new,
+                talonFXSections(configurator), configurator::apply, configurator::refresh, afterApply);
+    }
+
+    /**
+     * Applies a config to a CANcoder and verifies it
+     *
+     * @see #talonFX(String, TalonFX, TalonFXConfiguration, Supplier)
+     */
+    public static void canCoder(String name, CANcoder device, CANcoderConfiguration config,
+            Supplier<StatusCode> afterApply) {
+        var configurator = device.getConfigurator();
+        register(name, device.getNetwork(), config, CANcoderConfiguration::new,
+                canCoderSections(configurator), configurator::apply, configurator::refresh, afterApply);
+    }
+
+    /**
+     * Applies a config to a Pigeon2 and verifies it
+     *
+     * @see #talonFX(String, TalonFX, TalonFXConfiguration, Supplier)
+     */
+    public static void pigeon2(String name, Pigeon2 device, Pigeon2Configuration config,
+            Supplier<StatusCode> afterApply) {
+        var configurator = device.getConfigurator();
+        register(name, device.getNetwork(), config, Pigeon2Configuration::new,
+                pigeon2Sections(configurator), configurator::apply, configurator::refresh, afterApply);
+    }
+
+    /**
+     * Each section the configurator can write on its own, keyed by the section's field name,
+     * if a differing section isn't listed the full config is written once instead of any section
+     */
+    private static Map<String, Function<TalonFXConfiguration, StatusCode>> talonFXSections(
+            TalonFXConfigurator configurator) {
+        var sections = new HashMap<String, Function<TalonFXConfiguration, StatusCode>>();
+        sections.put("MotorOutput", config -> configurator.apply(config.MotorOutput));
+        sections.put("CurrentLimits", config -> configurator.apply(config.CurrentLimits));
+        sections.put("Voltage", config -> configurator.apply(config.Voltage));
+        sections.put("TorqueCurrent", config -> configurator.apply(config.TorqueCurrent));
+        sections.put("Feedback", config -> configurator.apply(config.Feedback));
+        sections.put("DifferentialSensors", config -> configurator.apply(config.DifferentialSensors));
+        sections.put("DifferentialConstants", config -> configurator.apply(config.DifferentialConstants));
+        sections.put("OpenLoopRamps", config -> configurator.apply(config.OpenLoopRamps));
+        sections.put("ClosedLoopRamps", config -> configurator.apply(config.ClosedLoopRamps));
+        sections.put("HardwareLimitSwitch", config -> configurator.apply(config.HardwareLimitSwitch));
+        sections.put("SoftwareLimitSwitch", config -> configurator.apply(config.SoftwareLimitSwitch));
+        sections.put("Audio", config -> configurator.apply(config.Audio));
+        sections.put("MotionMagic", config -> configurator.apply(config.MotionMagic));
+        sections.put("CustomParams", config -> configurator.apply(config.CustomParams));
+        sections.put("ClosedLoopGeneral", config -> configurator.apply(config.ClosedLoopGeneral));
+        sections.put("Slot0", config -> configurator.apply(config.Slot0));
+        sections.put("Slot1", config -> configurator.apply(config.Slot1));
+        sections.put("Slot2", config -> configurator.apply(config.Slot2));
+        return sections;
+    }
+
+    /** @see #talonFXSections(TalonFXConfigurator) */
+    private static Map<String, Function<CANcoderConfiguration, StatusCode>> canCoderSections(
+            CANcoderConfigurator configurator) {
+        var sections = new HashMap<String, Function<CANcoderConfiguration, StatusCode>>();
+        sections.put("MagnetSensor", config -> configurator.apply(config.MagnetSensor));
+        return sections;
+    }
+
+    /** @see #talonFXSections(TalonFXConfigurator) */
+    private static Map<String, Function<Pigeon2Configuration, StatusCode>> pigeon2Sections(
+            Pigeon2Configurator configurator) {
+        var sections = new HashMap<String, Function<Pigeon2Configuration, StatusCode>>();
+        sections.put("MountPose", config -> configurator.apply(config.MountPose));
+        sections.put("GyroTrim", config -> configurator.apply(config.GyroTrim));
+        sections.put("Pigeon2Features", config -> configurator.apply(config.Pigeon2Features));
+        return sections;
+    }
+
+    private static synchronized <C> void register(
+            String name, String bus, C desired, Supplier<C> blank,
+            Map<String, Function<C, StatusCode>> sectionAppliers,
+            Function<C, StatusCode> apply, Function<C, StatusCode> refresh,
+            Supplier<StatusCode> afterApply) {
+        submit(name, bus, () -> {
+            if (!configure(name, desired, blank, sectionAppliers, apply, refresh)) {
+                deviceFailed(name, bus);
+                return;
+            }
+            if (afterApply != null) {
+                var status = StatusCode.OK;
+                for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+                    status = afterApply.get();
+                    if (status.isOK()) {
+                        return;
+                    }
+                }
+                failures.add(name + " post config step failed after " + ATTEMPTS + " attempts: " + status);
+                deviceFailed(name, bus);
+            }
+        });
+    }
+
+    /**
+     * Runs a blocking boot step that isn't a config, like setting signal rates,
+     * on the bus's threads so {@link #isComplete(String)} waits for it too
+     *
+     * @param name how the step is referred to in logs
+     * @param bus  the bus the step talks to
+     * @param step the blocking calls, its status is reported if it isn't ok
+     */
+    public static void task(String name, String bus, Supplier<StatusCode> step) {
+        submit(name, bus, () -> {
+            var status = step.get();
+            if (!status.isOK()) {
+                failures.add(name + " failed: " + status);
+            }
+        });
+    }
+
+    private static void deviceFailed(String name, String bus) {
+        failedBuses.add(bus);
+        newlyFailedDevices.add(name);
+    }
+
+    private static synchronized void submit(String name, String bus, Runnable work) {
+        if (Double.isNaN(startTime)) {
+            startTime = Timer.getFPGATimestamp();
+        }
+        var executor = executors.computeIfAbsent(bus, b -> Executors.newFixedThreadPool(THREADS_PER_BUS, r -> {
+            var thread = new Thread(r, "BootConfigurator-" + (b.isEmpty() ? "rio" : b));
+            thread.setDaemon(true);
+            return thread;
+        }));
+        var future = executor.submit(() -> {
+            double deviceStart = Timer.getFPGATimestamp();
+            work.run();
+            lastFinishTime = Timer.getFPGATimestamp();
+            busFinishTimes.merge(bus, Utils.getCurrentTimeSeconds(), Math::max);
+            deviceTimes.add(Map.entry(name, lastFinishTime - deviceStart));
+        });
+        tasks.computeIfAbsent(bus, b -> new ArrayList<>()).add(future);
+    }
+
+    /**
+     * Reads the config back before writing so a device that already has the right config
+     * isn't written at all, otherwise only the differing sections are written
+     *
+     * @return true if the device has the config
+     */
+    private static <C> boolean configure(
+            String name, C desired, Supplier<C> blank, Map<String, Function<C, StatusCode>> sectionAppliers,
+            Function<C, StatusCode> apply, Function<C, StatusCode> refresh) {
+        var written = new ArrayList<String>();
+        String lastProblem = "";
+        // one more read than writes so the last write is verified too
+        for (int attempt = 0; attempt <= ATTEMPTS; attempt++) {
+            var actual = blank.get();
+            var refreshStatus = refresh.apply(actual);
+            Map<String, List<String>> sections;
+            if (refreshStatus.isOK()) {
+                sections = ConfigDiff.differingSections(desired, actual);
+                if (sections.isEmpty()) {
+                    changes.add(Map.entry(name, written));
+                    return true;
+                }
+                lastProblem = "read back mismatched " + sections.keySet();
+            } else {
+                sections = null;
+                lastProblem = "read back returned " + refreshStatus;
+            }
+            if (attempt == ATTEMPTS) {
+                break;
+            }
+
+            if (sections == null || !sectionAppliers.keySet().containsAll(sections.keySet())) {
+                // nothing to diff against or a section can't be written alone, write everything once
+                var applyStatus = apply.apply(desired);
+                if (!applyStatus.isOK()) {
+                    lastProblem = "apply returned " + applyStatus;
+                }
+                written.add("All");
+                continue;
+            }
+            for (var section : sections.entrySet()) {
+                var applyStatus = sectionAppliers.get(section.getKey()).apply(desired);
+                if (!applyStatus.isOK()) {
+                    lastProblem = "apply of " + section.getKey() + " returned " + applyStatus;
+                }
+                written.addAll(section.getValue());
+            }
+        }
+        changes.add(Map.entry(name, written));
+        failures.add(name + " failed to configure after " + ATTEMPTS + " attempts, " + lastProblem);
+        return false;
+    }
+
+    /**
+     * @param bus the CAN bus name, "" for the rio bus
+     * @return true once every device registered on the bus has been configured,
+     *         never if one of them couldn't be
+     */
+    public static synchronized boolean isComplete(String bus) {
+        return !failedBuses.contains(bus) && isDone(bus);
+    }
+
+    /**
+     * @param bus the CAN bus name, "" for the rio bus
+     * @return when the last boot step on the bus finished in phoenix time, comparable with
+     *         signal timestamps, NaN if none has
+     */
+    public static double getFinishTime(String bus) {
+        return busFinishTimes.getOrDefault(bus, Double.NaN);
+    }
+
+    /**
+     * @return true once every boot step on the bus finished, whether or not it succeeded
+     */
+    private static synchronized boolean isDone(String bus) {
+        var busTasks = tasks.get(bus);
+        if (busTasks == null) {
+            return true;
+        }
+        for (var task : busTasks) {
+            if (!task.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true once every registered device has been configured
+     */
+    public static synchronized boolean isComplete() {
+        for (var bus : tasks.keySet()) {
+            if (!isComplete(bus)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static synchronized boolean isDone() {
+        for (var bus : tasks.keySet()) {
+            if (!isDone(bus)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reports failures and, once, the total configuration time,
+     * has to be called from the main thread
+     */
+    public static void periodic() {
+        String failure;
+        while ((failure = failures.poll()) != null) {
+            Error.createCustom(failure).log();
+        }
+        Map.Entry<String, Double> deviceTime;
+        while ((deviceTime = deviceTimes.poll()) != null) {
+            Logger.recordOutput("BootConfigurator/" + deviceTime.getKey() + "Secs", deviceTime.getValue());
+        }
+        Map.Entry<String, List<String>> change;
+        while ((change = changes.poll()) != null) {
+            // empty if the device already had the config and nothing was written
+            var lines = change.getValue();
+            Logger.recordOutput("BootConfigurator/" + change.getKey() + "/Changes", lines.toArray(new String[0]));
+        }
+        String failedDevice;
+        boolean newFailures = false;
+        while ((failedDevice = newlyFailedDevices.poll()) != null) {
+            failedDevices.add(failedDevice);
+            newFailures = true;
+        }
+        if (newFailures) {
+            Logger.recordOutput("BootConfigurator/FailedDevices", failedDevices.toArray(new String[0]));
+        }
+        if (!reported && !Double.isNaN(startTime) && isDone()) {
+            reported = true;
+            Logger.recordOutput("BootConfigurator/TotalSecs", lastFinishTime - startTime);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package frc.robot.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import frc.robot.commands.characterization.CharacterizationCommands.GravityModel;
+
+/**
+ * Fits kS, kV, kA and kG from a log recorded with
+ * {@link frc.robot.commands.characterization.CharacterizationCommands}.
+ * <p>
+ * Run off robot with {@code ./gradlew characterize -Plog=path/to/log.wpilog},
+ * the gains are in the mechanisms native units (degrees or meters).
+ * <p>
+ * The model fit is {@code V = kS*sign(v) + kV*v + kA*a + kG*g}
+ * where g is 0, cos or sin of the logged gravity angle.
+ */
+public class CharacterizationFitter {
+    private static final String PREFIX = "Characterization/";
+    /** Samples further apart than this are treated as separate runs */
+    private static final long MAX_GAP_MICROS = 100_000;
+    /** Samples slower than this are dropped, static friction makes them noisy */
+    private static final double MIN_VELOCITY = 1e-3;
+
+    public static class Fit {
+        public final double kS, kV, kA, kG, rSquared;
+        public final int samples;
+
+        public Fit(double kS, double kV, double kA, double kG, double rSquared, int samples) {
+            this.kS = kS;
+            this.kV = kV;
+            this.kA = kA;
+            this.kG = kG;
+            this.rSquared = rSquared;
+            this.samples = samples;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "kS: %.5f, kV: %.5f, kA: %.5f, kG: %.5f, r^2: %.4f (%d samples)",
+                    kS, kV, kA, kG, rSquared, samples);
+        }
+    }
+
+    /**
+     * What was logged at one timestamp, a field is NaN if it wasn't.
+     * The log only has a field when its value changed, so the rest are held from earlier samples.
+     */
+    private static class Sample {
+        public double volts = Double.NaN, velocity = Double.NaN, gravityDegrees = Double.NaN;
+
+        public Sample() {}
+
+        public Sample(double volts, double velocity, double gravityDegrees) {
+            this.volts = volts;
+            this.velocity = velocity;
+            this.gravityDegrees = gravityDegrees;
+        }
+    }
+
+    private static class MechanismLog {
+        public final TreeMap<Long, Sample> samples = new TreeMap<>();
+        public GravityModel gravityModel = GravityModel.NONE;
+
+        public Sample at(long timestamp) {
+            return samples.computeIfAbsent(timestamp, t -> new Sample());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args[0].isEmpty()) {
+            System.out.println("usage: ./gradlew characterize -Plog=path/to/log.wpilog");
+            return;
+        }
+        var logs = readLog(args[0]);
+        if (logs.isEmpty()) {
+            System.out.println("no characterization data found in " + args[0]);
+            return;
+        }
+        for (var entry : logs.entrySet()) {
+            System.out.println(entry.getKey() + " (" + entry.getValue().gravityModel + " gravity)");
+            System.out.println("    " + fit(entry.getValue()));
+        }
+    }
+
+    private static Map<String, MechanismLog> readLog(String path) throws IOException {
+        var reader = new DataLogReader(path);
+        if (!reader.isValid()) {
+            throw new IOException("not a valid wpilog: " + path);
+        }
+
+        // entry id -> {mechanism, field}
+        var entries = new HashMap<Integer, String[]>();
+        var logs = new TreeMap<String, MechanismLog>();
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                var start = record.getStartData();
+                // akit prefixes outputs, only the tail of the key matters
+                int idx = start.name.indexOf(PREFIX);
+                if (idx < 0) {
+                    continue;
+                }
+                var parts = start.name.substring(idx + PREFIX.length()).split("/");
+                if (parts.length == 2) {
+                    entries.put(start.entry, parts);
+                }
+                continue;
+            }
+            if (record.isControl()) {
+                continue;
+            }
+            var key = entries.get(record.getEntry());
+            if (key == null) {
+                continue;
+            }
+            var log = logs.computeIfAbsent(key[0], k -> new MechanismLog());
+            long timestamp = record.getTimestamp();
+            switch (key[1]) {
+                case "Volts":
+                    log.at(timestamp).volts = record.getDouble();
+                    break;
+                case "Velocity":
+                    log.at(timestamp).velocity = record.getDouble();
+                    break;
+                case "GravityDegrees":
+                    log.at(timestamp).gravityDegrees = record.getDouble();
+                    break;
+                case "Position":
+                    // still marks a loop of the test even if nothing else changed
+                    log.at(timestamp);
+                    break;
+                case "GravityModel":
+                    log.gravityModel = GravityModel.valueOf(record.getString());
+                    break;
+                default:
+                    break;
+            }
+        }
+        return logs;
+    }
+
+    private static Fit fit(MechanismLog log) {
+        var times = new ArrayList<Long>();
+        var samples = new ArrayList<Sample>();
+        // sample and hold, walking the log in time order
+        double volts = Double.NaN, velocity = Double.NaN, gravityDegrees = 0.0;
+        for (var entry : log.samples.entrySet()) {
+            var sample = entry.getValue();
+            if (!Double.isNaN(sample.volts)) {
+                volts = sample.volts;
+            }
+            if (!Double.isNaN(sample.velocity)) {
+                velocity = sample.velocity;
+            }
+            if (!Double.isNaN(sample.gravityDegrees)) {
+                gravityDegrees = sample.gravityDegrees;
+            }
+            if (!Double.isNaN(volts) && !Double.isNaN(velocity)) {
+                times.add(entry.getKey());
+                samples.add(new Sample(volts, velocity, gravityDegrees));
+            }
+        }
+
+        boolean useGravity = log.gravityModel != GravityModel.NONE;
+        int params = useGravity ? 4 : 3;
+        var rows = new ArrayList<double[]>();
+        var targets = new ArrayList<Double>();
+        // central differences for acceleration, skipping the edges of each run
+        for (int i = 1; i < samples.size() - 1; i++) {
+            long before = times.get(i) - times.get(i - 1);
+            long after = times.get(i + 1) - times.get(i);
+            if (before > MAX_GAP_MICROS || after > MAX_GAP_MICROS) {
+                continue;
+            }
+            var sample = samples.get(i);
+            if (Math.abs(sample.velocity) < MIN_VELOCITY) {
+                continue;
+            }
+            double dt = (before + after) / 1e6;
+            double accel = (samples.get(i + 1).velocity - samples.get(i - 1).velocity) / dt;
+            double gravityRads = Math.toRadians(sample.gravityDegrees);
+
+            var row = new double[params];
+            row[0] = Math.signum(sample.velocity);
+            row[1] = sample.velocity;
+            row[2] = accel;
+            if (useGravity) {
+                row[3] = log.gravityModel == GravityModel.COSINE
+                        ? Math.cos(gravityRads)
+                        : Math.sin(gravityRads);
+            }
+            rows.add(row);
+            targets.add(sample.volts);
+        }
+
+        var gains = leastSquares(rows, targets, params);
+        return new Fit(
+                gains[0], gains[1], gains[2], useGravity ? gains[3] : 0.0,
+                rSquared(rows, targets, gains), rows.size());
+    }
+
+    /** Solves the normal equations, there are few enough parameters that this is fine */
+    private static double[] leastSquares(List<double[]> rows, List<Double> targets, int params) {
+        var ata = new double[params][params + 1];
+        for (int r = 0; r < rows.size(); r++) {
+            var row = rows.get(r);
+            for (int i = 0; i < params; i++) {
+                for (int j = 0; j < params; j++) {
+                    ata[i][j] += row[i] * row[j];
+                }
+                ata[i][params] += row[i] * targets.get(r);
+            }
+        }
+
+        // gaussian elimination with partial pivoting
+        for (int col = 0; col < params; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < params; r++) {
+                if (Math.abs(ata[r][col]) > Math.abs(ata[pivot][col])) {
+                    pivot = r;
+                }
+            }
+            var tmp = ata[col];
+            ata[col] = ata[pivot];
+            ata[pivot] = tmp;
+            if (Math.abs(ata[col][col]) < 1e-12) {
+                // not enough variation in the data to separate this gain
+                continue;
+            }
+            for (int r = 0; r < params; r++) {
+                if (r == col) {
+                    continue;
+                }
+                double factor = ata[r][col] / ata[col][col];
+                for (int c = col; c <= params; c++) {
+                    ata[r][c] -= factor * ata[col][c];
+                }
+            }
+        }
+
+        var gains = new double[params];
+        for (int i = 0; i < params; i++) {
+            gains[i] = Math.abs(ata[i][i]) < 1e-12 ? 0.0 : ata[i][params] / ata[i][i];
+        }
+        return gains;
+    }
+
+    private static double rSquared(List<double[]> rows, List<Double> targets, double[] gains) {
+        double mean = 0.0;
+        for (double target : targets) {
+            mean += target;
+        }
+        mean /= Math.max(1, targets.size());
+
+        double residual = 0.0, total = 0.0;
+        for (int r = 0; r < rows.size(); r++) {
+            double predicted = 0.0;
+            for (int i = 0; i < gains.length; i++) {
+                predicted += gains[i] * rows.get(r)[i];
+            }
+            residual += Math.pow(targets.get(r) - predicted, 2);
+            total += Math.pow(targets.get(r) - mean, 2);
+        }
+        return total == 0.0 ? 0.0 : 1.0 - residual / total;
+    }
+}
@@ -0,0 +1,110 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.littletonrobotics.junction.Logger;
+
+import frc.robot.Constants.kRobot;
+import frc.robot.util.ErrorHelper.Error;
+
+/**
+ * Runs the blocking signal refreshes of independent subsystems at the same time,
+ * each subsystem's bus wait overlaps instead of adding up on the robot thread.
+ * <p>
+ * {@link #run()} is the barrier, it returns once every refresh finished so the scheduler,
+ * subsystem periodics and commands all see fresh signals.
+ * <p>
+ * Ownership rules for a registered refresh:
+ * <ul>
+ * <li>it only touches the signals of the subsystem that registered it</li>
+ * <li>it doesn't log, send control requests or touch shared statics,
+ * those are confined to the robot thread, see {@link ThreadConfinement}</li>
+ * <li>everything it writes is only read after the barrier</li>
+ * </ul>
+ */
+public class ConcurrentPeriodic {
+    private static final List<String> names = new ArrayList<>();
+    /** Where each refresh's time is logged, built once at register */
+    private static final List<String> timeKeys = new ArrayList<>();
+    private static final List<Runnable> refreshes = new ArrayList<>();
+    private static final List<Future<?>> pending = new ArrayList<>();
+    /** Written by the worker that ran the refresh, read after the barrier */
+    private static long[] refreshNanos = new long[0];
+
+    private static ExecutorService pool;
+
+    /**
+     * @return whether registered refreshes run on the pool instead of in each subsystem's periodic
+     */
+    public static boolean isEnabled() {
+        return kRobot.CONCURRENT_PERIODIC;
+    }
+
+    /**
+     * Registers a subsystem's signal refresh, it will only run from {@link #run()} if this is enabled,
+     * otherwise the subsystem has to keep refreshing in its own periodic
+     *
+     * @param name    how the refresh is referred to in logs
+     * @param refresh waits for the subsystem's signals, has to follow the ownership rules
+     */
+    public static void register(String name, Runnable refresh) {
+        ThreadConfinement.check("ConcurrentPeriodic");
+        names.add(name);
+        timeKeys.add("ConcurrentPeriodic/" + name + "Ms");
+        refreshes.add(refresh);
+        refreshNanos = new long[refreshes.size()];
+    }
+
+    /**
+     * Runs every refresh on the pool and waits for all of them,
+     * should be called before the command scheduler runs
+     */
+    public static void run() {
+        if (!isEnabled() || refreshes.isEmpty()) {
+            return;
+        }
+        if (pool == null) {
+            var threadCount = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(kRobot.CONCURRENT_PERIODIC_THREADS, runnable -> {
+                var thread = new Thread(runnable, "ConcurrentPeriodic-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < refreshes.size(); i++) {
+            final int index = i;
+            final Runnable refresh = refreshes.get(i);
+            pending.add(pool.submit(() -> {
+                long taskStart = System.nanoTime();
+                refresh.run();
+                refreshNanos[index] = System.nanoTime() - taskStart;
+            }));
+        }
+
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                pending.get(i).get();
+            } catch (ExecutionException e) {
+                Error.createCustom("Refreshing " + names.get(i) + " failed: " + e.getCause()).log();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        pending.clear();
+
+        // the gap between the longest refresh and this is what running in parallel saved
+        Logger.recordOutput("ConcurrentPeriodic/BarrierMs", (System.nanoTime() - start) / 1e6);
+        for (int i = 0; i < timeKeys.size(); i++) {
+            Logger.recordOutput(timeKeys.get(i), refreshNanos[i] / 1e6);
+        }
+    }
+}
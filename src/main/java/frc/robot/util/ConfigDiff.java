@@ -0,0 +1,110 @@
+package frc.robot.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two Phoenix configuration objects field by field,
+ * the config classes are plain public fields so this works for all of them.
+ * <p>
+ * Doubles are compared with a tolerance because the devices store them at a lower precision.
+ */
+public class ConfigDiff {
+    /** Differences smaller than this are ignored, the device quantizes what it stores */
+    private static final double ABSOLUTE_TOLERANCE = 5e-4;
+    /** Differences smaller than this fraction of the value are ignored */
+    private static final double RELATIVE_TOLERANCE = 1e-3;
+
+    /**
+     * @param desired the config that should be on the device
+     * @param actual  the config read back from the device
+     * @return a line per differing field formatted as "Section.Field: actual -> desired",
+     *         empty if the configs match
+     */
+    public static List<String> diff(Object desired, Object actual) {
+        var changes = new ArrayList<String>();
+        diff("", desired, actual, changes);
+        return changes;
+    }
+
+    /**
+     * Groups the differences by top level config section, Slot0 or MotorOutput for example,
+     * so only the sections that changed need to be written
+     *
+     * @param desired the config that should be on the device
+     * @param actual  the config read back from the device
+     * @return the differing lines keyed by section name, empty if the configs match
+     */
+    public static Map<String, List<String>> differingSections(Object desired, Object actual) {
+        var sections = new LinkedHashMap<String, List<String>>();
+        for (Field field : configFields(desired.getClass())) {
+            var changes = new ArrayList<String>();
+            try {
+                diff(field.getName(), field.get(desired), field.get(actual), changes);
+            } catch (IllegalAccessException e) {
+                changes.add(field.getName() + ": unreadable");
+            }
+            if (!changes.isEmpty()) {
+                sections.put(field.getName(), changes);
+            }
+        }
+        return sections;
+    }
+
+    private static void diff(String path, Object desired, Object actual, List<String> changes) {
+        if (desired == null || actual == null) {
+            if (desired != actual) {
+                changes.add(path + ": " + actual + " -> " + desired);
+            }
+            return;
+        }
+        if (desired instanceof Double) {
+            double a = (Double) actual, d = (Double) desired;
+            if (Math.abs(a - d) > Math.max(ABSOLUTE_TOLERANCE, Math.abs(d) * RELATIVE_TOLERANCE)) {
+                changes.add(path + ": " + a + " -> " + d);
+            }
+            return;
+        }
+        if (isLeaf(desired.getClass())) {
+            if (!desired.equals(actual)) {
+                changes.add(path + ": " + actual + " -> " + desired);
+            }
+            return;
+        }
+        for (Field field : configFields(desired.getClass())) {
+            var fieldPath = path.isEmpty() ? field.getName() : path + "." + field.getName();
+            try {
+                diff(fieldPath, field.get(desired), field.get(actual), changes);
+            } catch (IllegalAccessException e) {
+                changes.add(fieldPath + ": unreadable");
+            }
+        }
+    }
+
+    private static boolean isLeaf(Class<?> clazz) {
+        return clazz.isPrimitive()
+                || clazz.isEnum()
+                || Number.class.isAssignableFrom(clazz)
+                || clazz == Boolean.class
+                || clazz == String.class
+                // phoenix enum-like value classes wrap an int
+                || clazz.getName().startsWith("com.ctre.phoenix6.signals.");
+    }
+
+    private static List<Field> configFields(Class<?> clazz) {
+        var fields = new ArrayList<Field>();
+        for (Field field : clazz.getFields()) {
+            int mods = field.getModifiers();
+            // FutureProofConfigs and the like are client side only
+            if (Modifier.isStatic(mods) || field.getName().equals("FutureProofConfigs")) {
+                continue;
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,174 @@
+package frc.robot.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+import org.littletonrobotics.junction.Logger;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.Utils;
+
+import frc.robot.util.ErrorHelper.Error;
+
+/**
+ * Runs device configuration writes on a background thread so a blocking
+ * CAN round trip never lands inside the robot loop.
+ * <p>
+ * Writes are keyed per device and config section, if a write is queued while another
+ * with the same key is still waiting only the latest one is sent.
+ */
+public class ConfigWorker {
+
+    public static enum WriteState {
+        PENDING,
+        /** A newer write with the same key replaced this one before it was sent */
+        SUPERSEDED,
+        SUCCEEDED,
+        FAILED
+    }
+
+    /** Tracks a single queued write, safe to poll from any thread */
+    public static class Ticket {
+        public final String key;
+        private volatile WriteState state = WriteState.PENDING;
+        private volatile StatusCode status = null;
+        private volatile double doneTime = Double.NaN;
+
+        private Ticket(String key) {
+            this.key = key;
+        }
+
+        public WriteState getState() {
+            return state;
+        }
+
+        /** @return the status the device returned, null until the write has run */
+        public StatusCode getStatus() {
+            return status;
+        }
+
+        /**
+         * @return when the write returned in phoenix time, comparable with signal timestamps,
+         *         NaN until it has run
+         */
+        public double getDoneTime() {
+            return doneTime;
+        }
+
+        /** @return true once the write has been sent or superseded */
+        public boolean isDone() {
+            return state != WriteState.PENDING;
+        }
+    }
+
+    private static class Write {
+        public final Ticket ticket;
+        public final Supplier<StatusCode> action;
+
+        public Write(Ticket ticket, Supplier<StatusCode> action) {
+            this.ticket = ticket;
+            this.action = action;
+        }
+    }
+
+    private static final Object lock = new Object();
+    /** Insertion ordered so writes to different keys go out in the order they were queued */
+    private static final LinkedHashMap<String, Write> pending = new LinkedHashMap<>();
+    /** Failed writes waiting to be reported from the main thread */
+    private static final ConcurrentLinkedQueue<Ticket> failures = new ConcurrentLinkedQueue<>();
+
+    private static volatile int inFlight = 0;
+    private static Thread thread;
+
+    /**
+     * Queues a configuration write
+     *
+     * @param key    identifies the device and config section, "Pivot/MotionMagic" for example
+     * @param action the configurator call, run on the worker thread
+     * @return a ticket that can be polled for completion
+     */
+    public static Ticket submit(String key, Supplier<StatusCode> action) {
+        var ticket = new Ticket(key);
+        synchronized (lock) {
+            startIfNeeded();
+            var replaced = pending.remove(key);
+            if (replaced != null) {
+                replaced.ticket.state = WriteState.SUPERSEDED;
+            }
+            pending.put(key, new Write(ticket, action));
+            lock.notifyAll();
+        }
+        return ticket;
+    }
+
+    /**
+     * @return true if there are no writes waiting or running
+     */
+    public static boolean isIdle() {
+        synchronized (lock) {
+            return pending.isEmpty() && inFlight == 0;
+        }
+    }
+
+    /**
+     * Reports failed writes, has to be called from the main thread
+     * because errors are reported through the {@link edu.wpi.first.wpilibj.DriverStation}
+     */
+    public static void periodic() {
+        Ticket failed;
+        while ((failed = failures.poll()) != null) {
+            Error.createCustom("Config write " + failed.key + " failed: " + failed.status).log();
+        }
+        synchronized (lock) {
+            Logger.recordOutput("ConfigWorker/Pending", pending.size() + inFlight);
+        }
+    }
+
+    private static void startIfNeeded() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(ConfigWorker::run, "ConfigWorker");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void run() {
+        while (true) {
+            Write write;
+            synchronized (lock) {
+                while (pending.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                Iterator<Map.Entry<String, Write>> iter = pending.entrySet().iterator();
+                write = iter.next().getValue();
+                iter.remove();
+                inFlight++;
+            }
+
+            StatusCode status;
+            try {
+                status = write.action.get();
+            } catch (Exception e) {
+                status = StatusCode.GeneralError;
+            }
+            write.ticket.status = status;
+            write.ticket.doneTime = Utils.getCurrentTimeSeconds();
+            write.ticket.state = status.isOK() ? WriteState.SUCCEEDED : WriteState.FAILED;
+            if (!status.isOK()) {
+                failures.add(write.ticket);
+            }
+
+            synchronized (lock) {
+                inFlight--;
+            }
+        }
+    }
+}
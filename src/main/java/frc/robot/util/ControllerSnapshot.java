@@ -0,0 +1,159 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.XboxController;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+
+/**
+ * An xbox controller read once per cycle, every trigger and axis supplier made from it
+ * reads the same snapshot instead of going to the driver station separately.
+ * <p>
+ * Mirrors the parts of {@link edu.wpi.first.wpilibj2.command.button.CommandXboxController} we use,
+ * {@link #sampleAll()} has to run before the command scheduler each loop.
+ */
+public class ControllerSnapshot {
+    private static final int AXIS_COUNT = 6;
+    private static final double TRIGGER_THRESHOLD = 0.5;
+
+    private static final List<ControllerSnapshot> snapshots = new ArrayList<>();
+
+    private final int port;
+    private final double[] axes = new double[AXIS_COUNT];
+    /** Bit n is button n + 1 */
+    private int buttons = 0;
+    private int pov = -1;
+
+    public ControllerSnapshot(int port) {
+        this.port = port;
+        snapshots.add(this);
+    }
+
+    /**
+     * Samples every controller, should be called once at the start of robot periodic
+     */
+    public static void sampleAll() {
+        for (int i = 0; i < snapshots.size(); i++) {
+            snapshots.get(i).sample();
+        }
+        LatencyTracer.sampled();
+    }
+
+    private void sample() {
+        // a missing axis would report a warning every loop
+        int axisCount = Math.min(DriverStation.getStickAxisCount(port), AXIS_COUNT);
+        for (int i = 0; i < AXIS_COUNT; i++) {
+            axes[i] = i < axisCount ? DriverStation.getStickAxis(port, i) : 0.0;
+        }
+        buttons = DriverStation.getStickButtons(port);
+        pov = DriverStation.getStickPOVCount(port) > 0 ? DriverStation.getStickPOV(port, 0) : -1;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @param button the button index, starting at 1
+     * @return whether the button was held when sampled
+     */
+    public boolean getButton(int button) {
+        return (buttons & (1 << (button - 1))) != 0;
+    }
+
+    public double getAxis(int axis) {
+        return axes[axis];
+    }
+
+    public int getPOV() {
+        return pov;
+    }
+
+    public Trigger button(int button) {
+        return new Trigger(CommandScheduler.getInstance().getDefaultButtonLoop(), () -> getButton(button));
+    }
+
+    public Trigger a() {
+        return button(XboxController.Button.kA.value);
+    }
+
+    public Trigger b() {
+        return button(XboxController.Button.kB.value);
+    }
+
+    public Trigger x() {
+        return button(XboxController.Button.kX.value);
+    }
+
+    public Trigger y() {
+        return button(XboxController.Button.kY.value);
+    }
+
+    public Trigger leftBumper() {
+        return button(XboxController.Button.kLeftBumper.value);
+    }
+
+    public Trigger rightBumper() {
+        return button(XboxController.Button.kRightBumper.value);
+    }
+
+    public Trigger back() {
+        return button(XboxController.Button.kBack.value);
+    }
+
+    public Trigger start() {
+        return button(XboxController.Button.kStart.value);
+    }
+
+    public Trigger leftStick() {
+        return button(XboxController.Button.kLeftStick.value);
+    }
+
+    public Trigger rightStick() {
+        return button(XboxController.Button.kRightStick.value);
+    }
+
+    /**
+     * @param angle the pov angle in degrees, 0 is up
+     */
+    public Trigger pov(int angle) {
+        return new Trigger(CommandScheduler.getInstance().getDefaultButtonLoop(), () -> pov == angle);
+    }
+
+    public Trigger leftTrigger() {
+        return new Trigger(CommandScheduler.getInstance().getDefaultButtonLoop(),
+                () -> getLeftTriggerAxis() > TRIGGER_THRESHOLD);
+    }
+
+    public Trigger rightTrigger() {
+        return new Trigger(CommandScheduler.getInstance().getDefaultButtonLoop(),
+                () -> getRightTriggerAxis() > TRIGGER_THRESHOLD);
+    }
+
+    public double getLeftX() {
+        return axes[XboxController.Axis.kLeftX.value];
+    }
+
+    public double getLeftY() {
+        return axes[XboxController.Axis.kLeftY.value];
+    }
+
+    public double getRightX() {
+        return axes[XboxController.Axis.kRightX.value];
+    }
+
+    public double getRightY() {
+        return axes[XboxController.Axis.kRightY.value];
+    }
+
+    public double getLeftTriggerAxis() {
+        return axes[XboxController.Axis.kLeftTrigger.value];
+    }
+
+    public double getRightTriggerAxis() {
+        return axes[XboxController.Axis.kRightTrigger.value];
+    }
+}
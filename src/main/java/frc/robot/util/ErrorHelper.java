@@ -1,11 +1,9 @@
 package frc.robot.util;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
-import edu.wpi.first.wpilibj.DriverStation;
-import frc.robot.Robot;
-
 public class ErrorHelper {
 
     public interface Error {
@@ -21,6 +19,15 @@ public class ErrorHelper {
             return this.getClass().toGenericString() + ": " + msg();
         }
 
+        /**
+         * How repeats of this error are recognized by the {@link ErrorReporter},
+         * default is the message so nothing is built every time the error is logged,
+         * errors with the same message are counted together
+         */
+        default public String key() {
+            return msg();
+        }
+
         public static Error createCustom(String message) {
             return new Error() {
                 @Override
@@ -36,15 +43,21 @@ public class ErrorHelper {
                 public String msg() {
                     return e.getMessage();
                 }
+
+                @Override
+                public String key() {
+                    var message = e.getMessage();
+                    return message != null ? message : e.getClass().getName();
+                }
             };
         }
 
+        /**
+         * Reports the error through the {@link ErrorReporter},
+         * repeats are rate limited so this is safe to call every loop
+         */
         default public void log() {
-            if (Robot.isSimulation()) {
-                System.out.println(this.display());
-            } else {
-                DriverStation.reportError(this.display(), false);
-            }
+            ErrorReporter.report(this);
         }
 
         default public Result<?, Error> toResultWeak() {
@@ -111,6 +124,9 @@ public class ErrorHelper {
      * the first type is the "ok" value type(no constraints), the second is the "err" value type(has to implement {@link Error}).
      */
     public static class Result<T, E extends Error> {
+        @SuppressWarnings("rawtypes")
+        private static final Result OK = new Result<>(Optional.of(Ok.INSTANCE), Optional.empty());
+
         public final Optional<T> okValue;
         public final Optional<E> errValue;
 
@@ -127,6 +143,15 @@ public class ErrorHelper {
             return new Result<T, ER>(Optional.of(okay), Optional.empty());
         }
 
+        /**
+         * A shared result for functions that would normally return void,
+         * doesn't allocate so it can be used in hot code
+         */
+        @SuppressWarnings("unchecked")
+        public static <ER extends Error> Result<Ok, ER> ok() {
+            return OK;
+        }
+
         public boolean isErr() {
             return errValue.isPresent();
         }
@@ -159,6 +184,8 @@ public class ErrorHelper {
      * for result if the function would normally return void
      */
     public static class Ok {
+        public static final Ok INSTANCE = new Ok();
+
         public Ok() {}
     }
 
@@ -178,7 +205,7 @@ public class ErrorHelper {
         private final List<Error> errors;
 
         public ErrorList(Error... errors) {
-            this.errors = List.of(errors);
+            this.errors = new ArrayList<>(List.of(errors));
         }
 
         public void append(Error error) {
@@ -210,6 +237,12 @@ public class ErrorHelper {
             return "msg cannot be called on this class";
         }
 
+        /** The display text, the message is the same for every list */
+        @Override
+        public String key() {
+            return display();
+        }
+
         @Override
         public String display() {
             StringBuilder sb = new StringBuilder();
@@ -0,0 +1,145 @@
+package frc.robot.util;
+
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Robot;
+import frc.robot.util.ErrorHelper.Error;
+
+/**
+ * Where {@link Error#log()} sends errors, repeats of the same error are counted
+ * instead of reported every time and the slow driver station call happens on a background thread.
+ * <p>
+ * An error is reported the first time it's seen, after that at most once per
+ * {@link #MIN_REPORT_INTERVAL_SECS} with how many times it happened in between,
+ * repeats that stop before the interval is up are reported from {@link #periodic()}.
+ */
+public class ErrorReporter {
+    /** How often the same error can be reported */
+    public static final double MIN_REPORT_INTERVAL_SECS = 1.0;
+    /** Past this many distinct errors new ones are reported without deduping */
+    private static final int MAX_TRACKED_KEYS = 256;
+    private static final int QUEUE_SIZE = 128;
+
+    private static class Tracked {
+        /** The display text of the last report, reused when only the repeats are reported */
+        public String display;
+        public long lastReportNanos;
+        public int suppressed = 0;
+        public long total = 0;
+    }
+
+    private static final HashMap<String, Tracked> tracked = new HashMap<>();
+    private static final ArrayBlockingQueue<String> outgoing = new ArrayBlockingQueue<>(QUEUE_SIZE);
+
+    private static long dropped = 0;
+    /** How many tracked errors have repeats that weren't reported yet */
+    private static int withSuppressed = 0;
+    private static Thread thread;
+
+    /**
+     * Reports the error if it hasn't been reported recently, otherwise just counts it,
+     * when it's only counted nothing is allocated
+     *
+     * @param error the error to report
+     */
+    public static synchronized void report(Error error) {
+        var key = error.key();
+        long now = System.nanoTime();
+        var entry = tracked.get(key);
+        if (entry == null) {
+            if (tracked.size() < MAX_TRACKED_KEYS) {
+                entry = new Tracked();
+                tracked.put(key, entry);
+            }
+        } else if (now - entry.lastReportNanos < MIN_REPORT_INTERVAL_SECS * 1e9) {
+            if (entry.suppressed == 0) {
+                withSuppressed++;
+            }
+            entry.suppressed++;
+            entry.total++;
+            return;
+        }
+
+        var message = error.display();
+        if (entry != null) {
+            entry.display = message;
+            entry.total++;
+            if (entry.suppressed > 0) {
+                message += repeats(entry);
+                withSuppressed--;
+            }
+            entry.lastReportNanos = now;
+            entry.suppressed = 0;
+        }
+        send(message);
+    }
+
+    /**
+     * Reports the repeats of errors that stopped happening before their interval was up,
+     * should be called every loop from the main thread
+     */
+    public static synchronized void periodic() {
+        if (withSuppressed == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (var entry : tracked.values()) {
+            if (entry.suppressed > 0 && now - entry.lastReportNanos >= MIN_REPORT_INTERVAL_SECS * 1e9) {
+                send(entry.display + repeats(entry));
+                entry.lastReportNanos = now;
+                entry.suppressed = 0;
+                withSuppressed--;
+            }
+        }
+    }
+
+    private static String repeats(Tracked entry) {
+        return " (repeated " + entry.suppressed + " times, " + entry.total + " total)";
+    }
+
+    /**
+     * @param key the {@link Error#key()} of an error
+     * @return how many times the error has been logged, 0 if it isn't tracked
+     */
+    public static synchronized long getCount(String key) {
+        var entry = tracked.get(key);
+        return entry == null ? 0 : entry.total;
+    }
+
+    private static void send(String message) {
+        if (thread == null) {
+            thread = new Thread(ErrorReporter::run, "ErrorReporter");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        if (!outgoing.offer(message)) {
+            dropped++;
+        }
+    }
+
+    private static void run() {
+        while (true) {
+            String message;
+            try {
+                message = outgoing.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long droppedNow;
+            synchronized (ErrorReporter.class) {
+                droppedNow = dropped;
+                dropped = 0;
+            }
+            if (droppedNow > 0) {
+                message += "\n" + droppedNow + " errors were dropped, the report queue was full";
+            }
+            if (Robot.isSimulation()) {
+                System.out.println(message);
+            } else {
+                DriverStation.reportError(message, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package frc.robot.util;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.kRobot;
+import frc.robot.util.ErrorHelper.Error;
+
+/**
+ * Runs the hot code paths while disabled so the JIT has compiled them before the robot is enabled,
+ * otherwise the first seconds of a match run interpreted code and overrun the loop.
+ * <p>
+ * Subsystems register exercises that run their math against sim or no output IO,
+ * an exercise must never send anything to a real device.
+ */
+public class JitWarmUp {
+    private static final LinkedHashMap<String, Runnable> exercises = new LinkedHashMap<>();
+    /** Null if the jvm doesn't report compilation time */
+    private static final CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+
+    private static int iterations = 0;
+    private static long lastCompileMs = -1;
+    private static int stableLoops = 0;
+    private static boolean stabilized = false;
+    private static double startTime = Double.NaN;
+
+    /**
+     * @param name     how the exercise is referred to in logs
+     * @param exercise one iteration of the hot path, must not touch actuators
+     */
+    public static void register(String name, Runnable exercise) {
+        exercises.put(name, exercise);
+    }
+
+    /**
+     * Runs a slice of the warm up, should be called from disabled periodic
+     * so the iterations are spread out instead of blocking one loop
+     */
+    public static void disabledPeriodic() {
+        if (stabilized) {
+            return;
+        }
+        if (Double.isNaN(startTime)) {
+            startTime = Timer.getFPGATimestamp();
+        }
+
+        if (iterations < kRobot.JIT_WARMUP_ITERATIONS) {
+            for (int i = 0; i < kRobot.JIT_WARMUP_ITERATIONS_PER_LOOP; i++) {
+                runExercises();
+            }
+            iterations += kRobot.JIT_WARMUP_ITERATIONS_PER_LOOP;
+            Logger.recordOutput("JitWarmUp/Iterations", iterations);
+        }
+
+        if (compiler == null || !compiler.isCompilationTimeMonitoringSupported()) {
+            // nothing to watch, call it done once the iterations are
+            stabilized = iterations >= kRobot.JIT_WARMUP_ITERATIONS;
+        } else {
+            long compileMs = compiler.getTotalCompilationTime();
+            if (lastCompileMs >= 0 && compileMs - lastCompileMs <= kRobot.JIT_STABLE_COMPILE_MS) {
+                stableLoops++;
+            } else {
+                stableLoops = 0;
+            }
+            lastCompileMs = compileMs;
+            Logger.recordOutput("JitWarmUp/CompileMs", compileMs);
+            stabilized = iterations >= kRobot.JIT_WARMUP_ITERATIONS
+                    && stableLoops >= kRobot.JIT_STABLE_LOOPS;
+        }
+
+        Logger.recordOutput("JitWarmUp/Stabilized", stabilized);
+        if (stabilized) {
+            double secs = Timer.getFPGATimestamp() - startTime;
+            Logger.recordOutput("JitWarmUp/StabilizedAfterSecs", secs);
+        }
+    }
+
+    /**
+     * @return true once the warm up is done and compilation has settled
+     */
+    public static boolean isStabilized() {
+        return stabilized;
+    }
+
+    private static void runExercises() {
+        var iter = exercises.entrySet().iterator();
+        while (iter.hasNext()) {
+            var exercise = iter.next();
+            try {
+                exercise.getValue().run();
+            } catch (Exception e) {
+                // a broken exercise shouldn't keep failing every loop
+                Error.createCustom("Warm up " + exercise.getKey() + " failed: " + e).log();
+                iter.remove();
+            }
+        }
+    }
+}
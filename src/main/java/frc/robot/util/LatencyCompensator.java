@@ -0,0 +1,88 @@
+package frc.robot.util;
+
+import org.littletonrobotics.junction.Logger;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.Utils;
+
+/**
+ * Extrapolates a signal from when the device sampled it to now using its rate of change,
+ * so signals that arrived at different times can be used together as if sampled at once.
+ * <p>
+ * Every update also checks the last extrapolation against the new sample, interpolated back to
+ * the time the extrapolation was for, and does the same for the raw value so the two can be compared.
+ * <p>
+ * {@link #update} can be called from any one thread, {@link #log(String)} has to be called from the main thread.
+ */
+public class LatencyCompensator {
+    /** A sample older than this is stale, extrapolating it would only add error */
+    private static final double MAX_COMPENSATION_SECS = 0.1;
+
+    private double lastRaw = 0.0;
+    private double lastRawTime = Double.NaN;
+    private double lastCompensated = 0.0;
+    private double lastCompensatedTime = Double.NaN;
+
+    private volatile double compensatedError = 0.0;
+    private volatile double uncompensatedError = 0.0;
+    private volatile double latency = 0.0;
+
+    /**
+     * @param value the signal, already refreshed
+     * @param slope the signal's rate of change per second, already refreshed
+     * @return the value extrapolated to now
+     */
+    public double update(StatusSignal<Double> value, StatusSignal<Double> slope) {
+        double sampleLatency = value.getTimestamp().getLatency();
+        double compensated = sampleLatency <= MAX_COMPENSATION_SECS
+                ? BaseStatusSignal.getLatencyCompensatedValue(value, slope)
+                : value.getValue();
+        return record(value, sampleLatency, compensated);
+    }
+
+    /**
+     * For when the rate of change doesn't come from a signal in the same units
+     *
+     * @param value       the signal, already refreshed
+     * @param slopePerSec the signal's rate of change per second
+     * @return the value extrapolated to now
+     */
+    public double update(StatusSignal<Double> value, double slopePerSec) {
+        double sampleLatency = value.getTimestamp().getLatency();
+        double compensated = value.getValue()
+                + (sampleLatency <= MAX_COMPENSATION_SECS ? slopePerSec * sampleLatency : 0.0);
+        return record(value, sampleLatency, compensated);
+    }
+
+    private double record(StatusSignal<Double> value, double sampleLatency, double compensated) {
+        double raw = value.getValue();
+        double rawTime = value.getTimestamp().getTime();
+        double now = Utils.getCurrentTimeSeconds();
+
+        // only measurable once a newer sample brackets the time the last extrapolation was for
+        if (rawTime > lastRawTime && lastCompensatedTime >= lastRawTime && lastCompensatedTime <= rawTime) {
+            double t = (lastCompensatedTime - lastRawTime) / (rawTime - lastRawTime);
+            double truth = lastRaw + (raw - lastRaw) * t;
+            compensatedError = Math.abs(lastCompensated - truth);
+            uncompensatedError = Math.abs(lastRaw - truth);
+        }
+        if (rawTime != lastRawTime) {
+            lastRaw = raw;
+            lastRawTime = rawTime;
+        }
+        lastCompensated = compensated;
+        lastCompensatedTime = now;
+        latency = sampleLatency;
+        return compensated;
+    }
+
+    /**
+     * @param key where to log the latency and the extrapolation errors
+     */
+    public void log(String key) {
+        Logger.recordOutput(key + "/LatencyMs", latency * 1000.0);
+        Logger.recordOutput(key + "/CompensatedError", compensatedError);
+        Logger.recordOutput(key + "/UncompensatedError", uncompensatedError);
+    }
+}
@@ -0,0 +1,213 @@
+package frc.robot.util;
+
+import java.util.Arrays;
+
+import org.littletonrobotics.junction.Logger;
+
+import edu.wpi.first.hal.DriverStationJNI;
+import edu.wpi.first.util.WPIUtilJNI;
+
+/**
+ * Measures how old the newest driver station packet is at each step between it arriving
+ * and a motor getting a new request: the controller sample, command execute and setControl.
+ * <p>
+ * Packet arrival is timestamped by a background thread waiting on the driver station new data event,
+ * every other stage is marked from the robot thread. Only the first mark of a stage in a loop counts,
+ * the distributions are logged as percentiles over the last {@link #WINDOW} loops.
+ */
+public class LatencyTracer {
+    /** How many loops the percentiles are taken over */
+    private static final int WINDOW = 500;
+    /** Sorting the windows isn't free so the percentiles are only logged this often */
+    private static final int LOG_PERIOD_LOOPS = 50;
+
+    /** The outputs that are traced */
+    public enum Path {
+        DRIVE,
+        SUPERSTRUCTURE
+    }
+
+    private static final Path[] PATHS = Path.values();
+
+    /** A rolling window of latencies in milliseconds */
+    private static class Distribution {
+        private final String key, p50Key, p95Key, p99Key, maxKey;
+        private final double[] samples = new double[WINDOW];
+        private final double[] sorted = new double[WINDOW];
+        private int count = 0;
+        private int next = 0;
+
+        public Distribution(String prefix) {
+            this.key = prefix + "Ms";
+            this.p50Key = prefix + "P50Ms";
+            this.p95Key = prefix + "P95Ms";
+            this.p99Key = prefix + "P99Ms";
+            this.maxKey = prefix + "MaxMs";
+        }
+
+        public void add(double ms) {
+            samples[next] = ms;
+            next = (next + 1) % WINDOW;
+            count = Math.min(count + 1, WINDOW);
+            Logger.recordOutput(key, ms);
+        }
+
+        public void logPercentiles() {
+            if (count == 0) {
+                return;
+            }
+            System.arraycopy(samples, 0, sorted, 0, count);
+            Arrays.sort(sorted, 0, count);
+            Logger.recordOutput(p50Key, percentile(0.50));
+            Logger.recordOutput(p95Key, percentile(0.95));
+            Logger.recordOutput(p99Key, percentile(0.99));
+            Logger.recordOutput(maxKey, sorted[count - 1]);
+        }
+
+        private double percentile(double p) {
+            return sorted[Math.min(count - 1, (int) Math.ceil(p * count) - 1)];
+        }
+    }
+
+    private static final Distribution toSample = new Distribution("Latency/PacketToSample");
+    private static final Distribution[] toExecute = new Distribution[PATHS.length];
+    private static final Distribution[] toActuate = new Distribution[PATHS.length];
+    static {
+        for (Path path : PATHS) {
+            toExecute[path.ordinal()] = new Distribution("Latency/" + path.name() + "/PacketToExecute");
+            toActuate[path.ordinal()] = new Distribution("Latency/" + path.name() + "/PacketToActuate");
+        }
+    }
+
+    /** Written by the packet thread, nanoTime of the newest packet */
+    private static volatile long packetNanos = 0;
+    private static volatile long packetCount = 0;
+
+    /** The packet this loop's sample was taken from, 0 if there's been none */
+    private static long loopPacketNanos = 0;
+    private static long lastPacketCount = 0;
+    private static final long[] executeNanos = new long[PATHS.length];
+    private static final long[] actuateNanos = new long[PATHS.length];
+    private static int loops = 0;
+    private static Thread thread;
+
+    /**
+     * Starts the thread that timestamps driver station packets
+     */
+    public static void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(LatencyTracer::waitForPackets, "LatencyTracer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void waitForPackets() {
+        int event = WPIUtilJNI.createEvent(false, false);
+        DriverStationJNI.provideNewDataEventHandle(event);
+        try {
+            while (true) {
+                WPIUtilJNI.waitForObject(event);
+                packetNanos = System.nanoTime();
+                packetCount++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            DriverStationJNI.removeNewDataEventHandle(event);
+            WPIUtilJNI.destroyEvent(event);
+        }
+    }
+
+    /**
+     * Should be called when the controllers are sampled, this starts a traced loop
+     */
+    public static void sampled() {
+        Arrays.fill(executeNanos, 0);
+        Arrays.fill(actuateNanos, 0);
+        loopPacketNanos = packetNanos;
+        if (loopPacketNanos == 0) {
+            return;
+        }
+        toSample.add(msSince(loopPacketNanos, System.nanoTime()));
+    }
+
+    /**
+     * Should be called from the execute of the command driving an output
+     */
+    public static void executed(Path path) {
+        if (executeNanos[path.ordinal()] == 0) {
+            executeNanos[path.ordinal()] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Should be called right after a control request is sent to a motor,
+     * requests sent from other threads, like the swerve fast loop, go through {@link #actuatedOffThread}
+     */
+    public static void actuated(Path path) {
+        if (!ThreadConfinement.isRobotThread()) {
+            return;
+        }
+        if (actuateNanos[path.ordinal()] == 0) {
+            actuateNanos[path.ordinal()] = System.nanoTime();
+        }
+    }
+
+    /**
+     * @return the packet this loop's sample was taken from, 0 if there's been none,
+     *         meant to be handed to another thread along with the request it led to
+     */
+    public static long samplePacketNanos() {
+        return loopPacketNanos;
+    }
+
+    /**
+     * For a request another thread sent, the thread hands back when it sent it
+     * and the {@link #samplePacketNanos()} the request came with, has to be called from the main thread
+     *
+     * @param path          the output the request was sent to
+     * @param packetNanos   the packet the request came from, 0 if there was none
+     * @param actuatedNanos nanoTime of when the request was sent
+     */
+    public static void actuatedOffThread(Path path, long packetNanos, long actuatedNanos) {
+        ThreadConfinement.check("LatencyTracer");
+        if (packetNanos != 0) {
+            toActuate[path.ordinal()].add(msSince(packetNanos, actuatedNanos));
+        }
+    }
+
+    /**
+     * Records this loop's latencies, should be called at the end of robot periodic
+     */
+    public static void periodic() {
+        if (loopPacketNanos != 0) {
+            for (int i = 0; i < PATHS.length; i++) {
+                if (executeNanos[i] != 0) {
+                    toExecute[i].add(msSince(loopPacketNanos, executeNanos[i]));
+                }
+                if (actuateNanos[i] != 0) {
+                    toActuate[i].add(msSince(loopPacketNanos, actuateNanos[i]));
+                }
+            }
+        }
+
+        long count = packetCount;
+        // more than one means packets were read by nobody, 0 means this loop reused old inputs
+        Logger.recordOutput("Latency/PacketsThisLoop", count - lastPacketCount);
+        lastPacketCount = count;
+
+        if (++loops % LOG_PERIOD_LOOPS == 0) {
+            toSample.logPercentiles();
+            for (int i = 0; i < PATHS.length; i++) {
+                toExecute[i].logPercentiles();
+                toActuate[i].logPercentiles();
+            }
+        }
+    }
+
+    private static double msSince(long fromNanos, long toNanos) {
+        return (toNanos - fromNanos) / 1e6;
+    }
+}
@@ -0,0 +1,190 @@
+package frc.robot.util;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import org.littletonrobotics.junction.Logger;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Records how much the robot thread allocates each loop, split up by phase,
+ * and logs the garbage collections that finished each loop, the last one in detail along with the loop it paused.
+ * <p>
+ * Call {@link #beginLoop()} at the top of robot periodic, {@link #mark(String)} after each phase
+ * and {@link #endLoop()} at the end, all from the robot thread.
+ */
+public class LoopTelemetry {
+    private static final int MAX_PHASES = 16;
+    /** How many loop start times are kept to match a collection to the loop it hit */
+    private static final int LOOP_HISTORY = 64;
+
+    private static final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final boolean allocationSupported = threadBean.isThreadAllocatedMemorySupported();
+
+    private static final String[] phaseNames = new String[MAX_PHASES];
+    /** The log key of each phase, only rebuilt when a different phase lands in the slot */
+    private static final String[] phaseKeys = new String[MAX_PHASES];
+    private static final long[] phaseBytes = new long[MAX_PHASES];
+    private static int phaseCount = 0;
+
+    private static final long[] loopStartCycles = new long[LOOP_HISTORY];
+    private static final long[] loopStartUptimeMs = new long[LOOP_HISTORY];
+
+    /** Collections reported by the jmx notification thread, drained on the robot thread */
+    private static final ConcurrentLinkedQueue<GarbageCollectionNotificationInfo> collections = new ConcurrentLinkedQueue<>();
+
+    private static final Set<String> heapPools = new HashSet<>();
+
+    private static long cycle = 0;
+    private static long lastBytes = -1;
+    private static long loopStartBytes = 0;
+    private static boolean started = false;
+
+    /**
+     * Marks the start of a loop, everything allocated since the last loop ended
+     * is counted as the framework phase, that's the mode periodic and advantagekit
+     */
+    public static void beginLoop() {
+        if (!started) {
+            start();
+        }
+        cycle++;
+        int slot = (int) (cycle % LOOP_HISTORY);
+        loopStartCycles[slot] = cycle;
+        loopStartUptimeMs[slot] = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        phaseCount = 0;
+        loopStartBytes = lastBytes < 0 ? allocatedBytes() : lastBytes;
+        lastBytes = loopStartBytes;
+        mark("Framework");
+    }
+
+    /**
+     * Ends a phase
+     *
+     * @param phase the name of the phase that just finished, should be a constant
+     */
+    public static void mark(String phase) {
+        long bytes = allocatedBytes();
+        if (phaseCount < MAX_PHASES) {
+            if (phaseNames[phaseCount] != phase) {
+                phaseNames[phaseCount] = phase;
+                phaseKeys[phaseCount] = "LoopTelemetry/Phases/" + phase + "Bytes";
+            }
+            phaseBytes[phaseCount] = bytes - lastBytes;
+            phaseCount++;
+        }
+        lastBytes = bytes;
+    }
+
+    /**
+     * Logs the loop's allocations and any collections that finished since the last loop
+     */
+    public static void endLoop() {
+        lastBytes = allocatedBytes();
+        Logger.recordOutput("LoopTelemetry/Cycle", cycle);
+        if (allocationSupported) {
+            Logger.recordOutput("LoopTelemetry/AllocatedBytes", lastBytes - loopStartBytes);
+            for (int i = 0; i < phaseCount; i++) {
+                Logger.recordOutput(phaseKeys[i], phaseBytes[i]);
+            }
+        }
+
+        // several collections can finish in one loop, they're aggregated so none overwrite each other
+        int gcCount = 0;
+        long gcTotalMs = 0;
+        long gcMaxMs = 0;
+        GarbageCollectionNotificationInfo last = null;
+        GarbageCollectionNotificationInfo info;
+        while ((info = collections.poll()) != null) {
+            long pauseMs = info.getGcInfo().getDuration();
+            gcCount++;
+            gcTotalMs += pauseMs;
+            gcMaxMs = Math.max(gcMaxMs, pauseMs);
+            last = info;
+        }
+        Logger.recordOutput("LoopTelemetry/GC/Count", gcCount);
+        Logger.recordOutput("LoopTelemetry/GC/TotalPauseMs", gcTotalMs);
+        Logger.recordOutput("LoopTelemetry/GC/MaxPauseMs", gcMaxMs);
+        if (last != null) {
+            var gcInfo = last.getGcInfo();
+            Logger.recordOutput("LoopTelemetry/GC/Last/Name", last.getGcName());
+            Logger.recordOutput("LoopTelemetry/GC/Last/Cause", last.getGcCause());
+            Logger.recordOutput("LoopTelemetry/GC/Last/PauseMs", gcInfo.getDuration());
+            Logger.recordOutput("LoopTelemetry/GC/Last/HeapBeforeMB", toMB(heapUsed(gcInfo.getMemoryUsageBeforeGc())));
+            Logger.recordOutput("LoopTelemetry/GC/Last/HeapAfterMB", toMB(heapUsed(gcInfo.getMemoryUsageAfterGc())));
+            Logger.recordOutput("LoopTelemetry/GC/Last/HitCycle", cycleAt(gcInfo.getStartTime()));
+        }
+        // mark again so logging isn't counted as the next loop's framework phase
+        lastBytes = allocatedBytes();
+    }
+
+    private static void start() {
+        started = true;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool.getName());
+            }
+        }
+        if (allocationSupported && !threadBean.isThreadAllocatedMemoryEnabled()) {
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(gc instanceof NotificationEmitter)) {
+                continue;
+            }
+            ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+                if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                    collections.add(GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()));
+                }
+            }, null, null);
+        }
+    }
+
+    private static long allocatedBytes() {
+        return allocationSupported ? threadBean.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * @param uptimeMs when the collection started, in milliseconds since the jvm started
+     * @return the latest remembered loop that started before then, -1 if it's too old
+     */
+    private static long cycleAt(long uptimeMs) {
+        long best = -1;
+        long bestStart = Long.MIN_VALUE;
+        for (int i = 0; i < LOOP_HISTORY; i++) {
+            if (loopStartCycles[i] > 0 && loopStartUptimeMs[i] <= uptimeMs && loopStartUptimeMs[i] > bestStart) {
+                best = loopStartCycles[i];
+                bestStart = loopStartUptimeMs[i];
+            }
+        }
+        return best;
+    }
+
+    /** Collections also report metaspace and the code cache, only heap pools count */
+    private static long heapUsed(Map<String, MemoryUsage> pools) {
+        long used = 0;
+        for (var pool : pools.entrySet()) {
+            if (heapPools.contains(pool.getKey())) {
+                used += pool.getValue().getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static double toMB(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,163 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.littletonrobotics.junction.Logger;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.CANBus.CANBusStatus;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.hardware.ParentDevice;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import frc.robot.util.ErrorHelper.Error;
+
+/**
+ * Every IO class declares the rate each of its signals needs here instead of running at phoenix defaults,
+ * at boot the rates are applied and every other signal of a planned device is turned off.
+ * <p>
+ * A signal that isn't planned stops updating once its device is optimized,
+ * so anything read from a planned device has to be planned.
+ * <p>
+ * The planned load of each bus is estimated and logged next to the utilization the bus reports.
+ */
+public class SignalPlanner {
+    /** Bits in a classic extended frame with a full payload, including average bit stuffing */
+    private static final double FRAME_BITS = 130.0;
+    private static final double BUS_BITRATE = 1_000_000.0;
+    /** Phoenix resends control requests at this rate */
+    private static final double CONTROL_HZ = 100.0;
+    private static final long MEASURE_PERIOD_SECS = 1;
+
+    private static class Plan {
+        public final String name;
+        public final ParentDevice device;
+        /** The highest rate asked for each signal */
+        public final LinkedHashMap<BaseStatusSignal, Double> rates = new LinkedHashMap<>();
+
+        public Plan(String name, ParentDevice device) {
+            this.name = name;
+            this.device = device;
+        }
+    }
+
+    private static final LinkedHashMap<ParentDevice, Plan> plans = new LinkedHashMap<>();
+    private static final LinkedHashMap<String, Double> estimatedUtilization = new LinkedHashMap<>();
+    /** Bus statuses from the poller thread, waiting to be logged from the main thread */
+    private static final ConcurrentLinkedQueue<Map.Entry<String, CANBusStatus>> measured = new ConcurrentLinkedQueue<>();
+
+    private static boolean applied = false;
+    private static ScheduledExecutorService poller;
+
+    /**
+     * Declares the rate some signals of a device need
+     *
+     * @param name    the device, how it's referred to in logs
+     * @param device  the device the signals belong to
+     * @param hz      how often the signals have to update
+     * @param signals the signals
+     */
+    public static void plan(String name, ParentDevice device, double hz, BaseStatusSignal... signals) {
+        if (applied) {
+            Error.createCustom("Signals of " + name + " were planned after the plan was applied").log();
+            return;
+        }
+        var plan = plans.computeIfAbsent(device, d -> new Plan(name, d));
+        for (var signal : signals) {
+            plan.rates.merge(signal, hz, Math::max);
+        }
+    }
+
+    /**
+     * Applies every plan on the boot configurator threads and starts measuring the buses,
+     * should be called once after every subsystem is constructed and before {@link Logger#start()}
+     * so the planned load makes it into the metadata
+     */
+    public static void apply() {
+        if (applied) {
+            return;
+        }
+        applied = true;
+
+        var framesPerSec = new LinkedHashMap<String, Double>();
+        for (var plan : plans.values()) {
+            var bus = plan.device.getNetwork();
+            double deviceFrames = plan.device instanceof TalonFX ? CONTROL_HZ : 0.0;
+
+            // signals at the same rate go out in one call
+            var byRate = new TreeMap<Double, List<BaseStatusSignal>>();
+            for (var rate : plan.rates.entrySet()) {
+                byRate.computeIfAbsent(rate.getValue(), hz -> new ArrayList<>()).add(rate.getKey());
+                // an upper bound, phoenix packs some signals into the same frame
+                deviceFrames += rate.getValue();
+            }
+            framesPerSec.merge(bus, deviceFrames, Double::sum);
+
+            BootConfigurator.task(plan.name + "/Signals", bus, () -> {
+                var worst = StatusCode.OK;
+                for (var group : byRate.entrySet()) {
+                    var status = BaseStatusSignal.setUpdateFrequencyForAll(
+                            group.getKey(), group.getValue().toArray(new BaseStatusSignal[0]));
+                    if (!status.isOK()) {
+                        worst = status;
+                    }
+                }
+                var status = plan.device.optimizeBusUtilization();
+                return status.isOK() ? worst : status;
+            });
+        }
+
+        for (var bus : framesPerSec.entrySet()) {
+            double utilization = bus.getValue() * FRAME_BITS / BUS_BITRATE;
+            estimatedUtilization.put(bus.getKey(), utilization);
+            var prefix = "SignalPlanner/" + busLabel(bus.getKey()) + "/";
+            Logger.recordMetadata(prefix + "PlannedFramesPerSec", String.format("%.0f", bus.getValue()));
+            Logger.recordMetadata(prefix + "PlannedUtilization", String.format("%.0f%%", utilization * 100.0));
+        }
+
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "SignalPlanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleAtFixedRate(() -> {
+            for (var bus : estimatedUtilization.keySet()) {
+                measured.add(Map.entry(bus, CANBus.getStatus(bus)));
+            }
+        }, MEASURE_PERIOD_SECS, MEASURE_PERIOD_SECS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Logs the latest bus measurements next to the estimates, has to be called from the main thread
+     */
+    public static void periodic() {
+        Map.Entry<String, CANBusStatus> entry;
+        while ((entry = measured.poll()) != null) {
+            var prefix = "SignalPlanner/" + busLabel(entry.getKey()) + "/";
+            var status = entry.getValue();
+            double estimated = estimatedUtilization.get(entry.getKey());
+            Logger.recordOutput(prefix + "EstimatedUtilization", estimated);
+            if (!status.Status.isOK()) {
+                Logger.recordOutput(prefix + "Status", status.Status.toString());
+                continue;
+            }
+            Logger.recordOutput(prefix + "Status", "OK");
+            Logger.recordOutput(prefix + "MeasuredUtilization", status.BusUtilization);
+            Logger.recordOutput(prefix + "BusOffCount", status.BusOffCount);
+            Logger.recordOutput(prefix + "TxFullCount", status.TxFullCount);
+        }
+    }
+
+    private static String busLabel(String bus) {
+        return bus.isEmpty() ? "rio" : bus;
+    }
+}
@@ -95,31 +95,35 @@ public class SimHelper {
 
     public static class SimplePoseSim {
         //units/s
-        private final Double maxVelocity;
+        private final double maxVelocity;
         //units, units, seconds
-        private Double startPose, endPose;
-        private Double startTime;
-        private Double veloStartPose, velo;
+        private double startPose, endPose;
+        private double startTime;
+        private double veloStartPose, velo;
         private boolean lastModeWasPose = true;
+        /** When the voltage was last applied, NaN unless the sim is being driven by voltage */
+        private double lastVoltageTime = Double.NaN;
 
-        public SimplePoseSim(final Double maxVelocity) {
+        public SimplePoseSim(final double maxVelocity) {
             this.maxVelocity = maxVelocity;
         }
 
-        public void instantSetPose(Double pose) {
+        public void instantSetPose(double pose) {
             this.startPose = pose;
             this.endPose = pose;
             this.startTime = Timer.getFPGATimestamp();
             this.lastModeWasPose = true;
+            this.lastVoltageTime = Double.NaN;
         }
 
-        public Double getPose() {
+        public double getPose() {
             if (this.lastModeWasPose) {
                 //units
                 var deltaDistance = Math.abs(this.startPose - this.endPose);
                 var dT = deltaDistance/this.maxVelocity;
                 var timeSinceStart = Timer.getFPGATimestamp() - this.startTime;
-                if (timeSinceStart > dT) {
+                // also covers a move of no distance, which would divide by zero below
+                if (timeSinceStart >= dT) {
                     return this.endPose;
                 }
                 var percent = timeSinceStart/dT;
@@ -134,9 +138,9 @@ public class SimHelper {
             }
         }
 
-        public Double getVelocity() {
+        public double getVelocity() {
             if (this.lastModeWasPose) {
-                if (this.getPose() == this.endPose) {
+                if (this.isAtTarget()) {
                     return 0.0;
                 }
                 return this.maxVelocity;
@@ -145,14 +149,63 @@ public class SimHelper {
             }
         }
 
-        public void setTargetPosition(Double pose) {
+        /**
+         * Only true once the move has had time to finish, the pose can equal
+         * the end pose early because of the clamping in {@link #getPose()}
+         */
+        private boolean isAtTarget() {
+            var dT = Math.abs(this.startPose - this.endPose) / this.maxVelocity;
+            return Timer.getFPGATimestamp() - this.startTime >= dT;
+        }
+
+        public void setTargetPosition(double pose) {
             this.startPose = this.getPose();
             this.endPose = pose;
             this.startTime = Timer.getFPGATimestamp();
             this.lastModeWasPose = true;
+            this.lastVoltageTime = Double.NaN;
+        }
+
+        public void setTargetVelocity(double velocity) {
+            this.lastVoltageTime = Double.NaN;
+            this.holdVelocity(velocity);
+        }
+
+        /**
+         * Drives the sim through {@code V = kS*sign(v) + kV*v + kA*a},
+         * has to be called every loop for as long as it's driven by voltage.
+         * The voltage is held between calls.
+         *
+         * @param volts the applied voltage, less whatever gravity takes
+         */
+        public void setInputVoltage(double volts, double kS, double kV, double kA) {
+            double now = Timer.getFPGATimestamp();
+            boolean wasDriven = !Double.isNaN(this.lastVoltageTime);
+            double velocity = wasDriven ? this.velo : 0.0;
+            double dt = wasDriven ? now - this.lastVoltageTime : 0.0;
+
+            double friction;
+            if (velocity != 0.0) {
+                friction = kS * Math.signum(velocity);
+            } else if (Math.abs(volts) > kS) {
+                friction = kS * Math.signum(volts);
+            } else {
+                // static friction holds it
+                friction = volts;
+            }
+            // exact for a held voltage, velocity decays towards the steady state with a time constant of kA/kV
+            double steadyState = (volts - friction) / kV;
+            double next = steadyState + (velocity - steadyState) * Math.exp(-dt * kV / kA);
+            if (velocity != 0.0 && Math.signum(next) != Math.signum(velocity)) {
+                // friction stops the mechanism, it can't reverse it
+                next = 0.0;
+            }
+
+            this.holdVelocity(next);
+            this.lastVoltageTime = now;
         }
 
-        public void setTargetVelocity(Double velocity) {
+        private void holdVelocity(double velocity) {
             this.veloStartPose = this.getPose();
             this.startTime = Timer.getFPGATimestamp();
             if (Math.abs(velocity) > this.maxVelocity) {
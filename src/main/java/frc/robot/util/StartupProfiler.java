@@ -0,0 +1,96 @@
+package frc.robot.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Times the phases of robot startup from the JVM starting to the first robot periodic.
+ * <p>
+ * Each call to {@link #mark(String)} ends the phase with that name,
+ * so a phase is everything that happened since the previous mark.
+ */
+public class StartupProfiler {
+    /** Phase name to milliseconds, in the order they happened */
+    private static final LinkedHashMap<String, Double> phases = new LinkedHashMap<>();
+
+    private static long lastMarkNanos = -1;
+    /** How many phases were already written as metadata */
+    private static int phasesInMetadata = 0;
+    private static boolean finished = false;
+
+    /**
+     * Starts profiling, the time the JVM took to get here becomes the first phase
+     */
+    public static synchronized void start() {
+        if (lastMarkNanos >= 0) {
+            return;
+        }
+        lastMarkNanos = System.nanoTime();
+        phases.put("JVM", (double) ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    /**
+     * Ends a phase
+     *
+     * @param phase the name of the phase that just finished
+     */
+    public static synchronized void mark(String phase) {
+        if (finished) {
+            return;
+        }
+        if (lastMarkNanos < 0) {
+            start();
+        }
+        long now = System.nanoTime();
+        phases.merge(phase, (now - lastMarkNanos) / 1e6, Double::sum);
+        lastMarkNanos = now;
+    }
+
+    /**
+     * Writes the phases so far as metadata, has to be called before {@link Logger#start()}
+     * because metadata can't be added once the logger is running
+     */
+    public static synchronized void recordMetadata() {
+        for (var phase : phases.entrySet()) {
+            Logger.recordMetadata("Startup/" + phase.getKey(), String.format("%.1f ms", phase.getValue()));
+        }
+        phasesInMetadata = phases.size();
+    }
+
+    /**
+     * Ends the last phase and prints a summary, does nothing after the first call
+     * so it can be called from every robot periodic
+     */
+    public static synchronized void finish() {
+        if (finished) {
+            return;
+        }
+        mark("FirstRobotPeriodic");
+        finished = true;
+
+        double totalMs = 0.0;
+        int index = 0;
+        for (var phase : phases.entrySet()) {
+            totalMs += phase.getValue();
+            // phases after the logger started can only go in as outputs
+            if (index++ >= phasesInMetadata) {
+                Logger.recordOutput("Startup/" + phase.getKey() + "Ms", phase.getValue());
+            }
+        }
+        Logger.recordOutput("Startup/TotalMs", totalMs);
+
+        var slowestFirst = new ArrayList<Map.Entry<String, Double>>(phases.entrySet());
+        slowestFirst.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        var summary = new StringBuilder("[StartupProfiler] startup took ")
+                .append(String.format("%.1f ms", totalMs));
+        for (var phase : slowestFirst) {
+            summary.append(String.format("%n  %-20s %9.1f ms %5.1f%%",
+                    phase.getKey(), phase.getValue(), 100.0 * phase.getValue() / totalMs));
+        }
+        System.out.println(summary);
+    }
+}
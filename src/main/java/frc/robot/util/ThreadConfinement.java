@@ -0,0 +1,40 @@
+package frc.robot.util;
+
+import frc.robot.util.ErrorHelper.Error;
+
+/**
+ * Checks that state meant to only be used from the robot thread actually is,
+ * a violation is reported through {@link ErrorHelper} instead of throwing so a match keeps going.
+ * <p>
+ * Nothing is checked until {@link #claimRobotThread()} is called.
+ */
+public class ThreadConfinement {
+    private static volatile Thread robotThread;
+
+    /**
+     * Marks the calling thread as the robot thread, should be called first thing in robot init
+     */
+    public static void claimRobotThread() {
+        robotThread = Thread.currentThread();
+    }
+
+    /**
+     * @return true if called from the robot thread or before it was claimed
+     */
+    public static boolean isRobotThread() {
+        var thread = robotThread;
+        return thread == null || thread == Thread.currentThread();
+    }
+
+    /**
+     * Reports an error if called from any thread other than the robot thread
+     *
+     * @param owner what is being accessed, used in the error
+     */
+    public static void check(String owner) {
+        if (!isRobotThread()) {
+            Error.createCustom(owner + " is confined to the robot thread but was used from "
+                    + Thread.currentThread().getName()).log();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package frc.robot.subsystems.super_structure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.Constants.kSuperStructure.*;
+import frc.robot.subsystems.super_structure.States.SuperStructurePosition;
+
+class SuperStructurePositionTest {
+
+    @Test
+    void setOverwritesEveryFieldAndChains() {
+        var position = new SuperStructurePosition(1.0, 2.0, 3.0, 4.0);
+        var returned = position.set(5.0, 6.0, 7.0, 8.0);
+
+        assertSame(position, returned);
+        assertEquals(5.0, position.wristDegrees);
+        assertEquals(6.0, position.pivotDegrees);
+        assertEquals(7.0, position.elevatorMeters);
+        assertEquals(8.0, position.endEffectorVoltage);
+    }
+
+    @Test
+    void reachedStateWithinTolerance() {
+        var target = new SuperStructurePosition(10.0, 20.0, 1.0, 0.0);
+        var pose = new SuperStructurePosition(
+                10.0 + kWrist.TOLERANCE * 0.5,
+                20.0 - kPivot.TOLERANCE * 0.5,
+                1.0 + kElevator.TOLERANCE * 0.5,
+                12.0);
+
+        // the end-effector isn't checked
+        assertTrue(target.reachedState(pose, 1.0));
+    }
+
+    @Test
+    void reachedStateFailsIfAnyComponentIsOut() {
+        var target = new SuperStructurePosition(10.0, 20.0, 1.0, 0.0);
+
+        assertFalse(target.reachedState(new SuperStructurePosition(10.0 + kWrist.TOLERANCE * 2.0, 20.0, 1.0, 0.0), 1.0));
+        assertFalse(target.reachedState(new SuperStructurePosition(10.0, 20.0 + kPivot.TOLERANCE * 2.0, 1.0, 0.0), 1.0));
+        assertFalse(target.reachedState(new SuperStructurePosition(10.0, 20.0, 1.0 + kElevator.TOLERANCE * 2.0, 0.0), 1.0));
+    }
+
+    @Test
+    void reachedStateScalesTolerance() {
+        var target = new SuperStructurePosition(10.0, 20.0, 1.0, 0.0);
+        var pose = new SuperStructurePosition(10.0, 20.0 + kPivot.TOLERANCE * 2.0, 1.0, 0.0);
+
+        assertFalse(target.reachedState(pose, 1.0));
+        assertTrue(target.reachedState(pose, 3.0));
+    }
+
+    @Test
+    void reachedStateSeesARefilledPose() {
+        var target = new SuperStructurePosition(10.0, 20.0, 1.0, 0.0);
+        var pose = new SuperStructurePosition(0.0, 0.0, 0.0, 0.0);
+
+        assertFalse(target.reachedState(pose, 1.0));
+        pose.set(10.0, 20.0, 1.0, 0.0);
+        assertTrue(target.reachedState(pose, 1.0));
+    }
+}
@@ -0,0 +1,56 @@
+package frc.robot.subsystems.super_structure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.subsystems.super_structure.SuperStructure.CharacterizedComponent;
+
+class SuperStructureTest {
+    /** Built once, it registers itself with shuffleboard and the concurrent periodic */
+    private static SuperStructure superStructure;
+
+    @BeforeAll
+    static void setup() {
+        assertTrue(HAL.initialize(500, 0));
+        SimHooks.pauseTiming();
+        superStructure = new SuperStructure();
+        NetworkTableInstance.getDefault()
+                .getEntry("/Shuffleboard/Driver/Enable Superstructure")
+                .setBoolean(true);
+    }
+
+    @AfterAll
+    static void teardown() {
+        SimHooks.resumeTiming();
+    }
+
+    @Test
+    void getPoseReturnsTheSameInstance() {
+        assertSame(superStructure.getPose(), superStructure.getPose());
+    }
+
+    @Test
+    void getPoseIsRefilled() {
+        var pose = superStructure.getPose();
+        double startDegrees = pose.pivotDegrees;
+
+        for (int i = 0; i < 10; i++) {
+            superStructure.runCharacterizationVolts(CharacterizedComponent.PIVOT, 6.0);
+            SimHooks.stepTiming(0.02);
+        }
+
+        var refilled = superStructure.getPose();
+        assertSame(pose, refilled);
+        assertTrue(refilled.pivotDegrees > startDegrees);
+        assertEquals(superStructure.getCharacterizationPosition(CharacterizedComponent.PIVOT),
+                refilled.pivotDegrees);
+    }
+}
@@ -0,0 +1,82 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.util.SimHelper.SimplePoseSim;
+
+class SimplePoseSimTest {
+    private static final double EPSILON = 1e-6;
+    private static final double MAX_VELOCITY = 5.0;
+
+    private SimplePoseSim sim;
+
+    @BeforeEach
+    void setup() {
+        HAL.initialize(500, 0);
+        SimHooks.pauseTiming();
+        sim = new SimplePoseSim(MAX_VELOCITY);
+        sim.instantSetPose(0.0);
+    }
+
+    @AfterEach
+    void teardown() {
+        SimHooks.resumeTiming();
+    }
+
+    @Test
+    void velocityIsZeroAtRest() {
+        assertEquals(0.0, sim.getVelocity(), EPSILON);
+    }
+
+    @Test
+    void velocityIsMaxUntilTheMoveHasHadTimeToFinish() {
+        sim.setTargetPosition(10.0);
+
+        SimHooks.stepTiming(1.0);
+        // the pose clamps to the end pose early, the velocity shouldn't follow it
+        assertEquals(10.0, sim.getPose(), EPSILON);
+        assertEquals(MAX_VELOCITY, sim.getVelocity(), EPSILON);
+
+        SimHooks.stepTiming(0.9);
+        assertEquals(MAX_VELOCITY, sim.getVelocity(), EPSILON);
+
+        SimHooks.stepTiming(0.5);
+        assertEquals(0.0, sim.getVelocity(), EPSILON);
+        assertEquals(10.0, sim.getPose(), EPSILON);
+    }
+
+    @Test
+    void velocityModeHoldsTheVelocity() {
+        sim.setTargetVelocity(3.0);
+        SimHooks.stepTiming(1.0);
+
+        assertEquals(3.0, sim.getVelocity(), EPSILON);
+        assertEquals(3.0, sim.getPose(), EPSILON);
+    }
+
+    @Test
+    void velocityModeIsClampedToMax() {
+        sim.setTargetVelocity(-2.0 * MAX_VELOCITY);
+        SimHooks.stepTiming(1.0);
+
+        assertEquals(-MAX_VELOCITY, sim.getVelocity(), EPSILON);
+        assertEquals(-MAX_VELOCITY, sim.getPose(), EPSILON);
+    }
+
+    @Test
+    void positionAfterVelocityStartsFromTheCurrentPose() {
+        sim.setTargetVelocity(MAX_VELOCITY);
+        SimHooks.stepTiming(1.0);
+        sim.setTargetPosition(MAX_VELOCITY);
+
+        // a move with nowhere to go is already at its target
+        assertEquals(0.0, sim.getVelocity(), EPSILON);
+        assertEquals(MAX_VELOCITY, sim.getPose(), EPSILON);
+    }
+}